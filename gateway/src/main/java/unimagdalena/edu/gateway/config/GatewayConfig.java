@@ -6,8 +6,11 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import unimagdalena.edu.gateway.filters.CorrelationIdFilter;
 import unimagdalena.edu.gateway.filters.factory.SampleCookieGatewayFilterFactory;
+import unimagdalena.edu.gateway.filters.batching.ProductBatchingGatewayFilter;
+import unimagdalena.edu.gateway.filters.caching.CacheCodec;
 import unimagdalena.edu.gateway.filters.caching.ProductsCacheGatewayFilter; // Import the caching filter
 import java.time.Duration; // Import Duration
+import java.util.List;
 
 @Configuration
 public class GatewayConfig {
@@ -15,7 +18,8 @@ public class GatewayConfig {
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
                                            SampleCookieGatewayFilterFactory cookieFilter,
-                                           ProductsCacheGatewayFilter productsCacheGatewayFilter) {
+                                           ProductsCacheGatewayFilter productsCacheGatewayFilter,
+                                           ProductBatchingGatewayFilter productBatchingGatewayFilter) {
         return builder.routes()
                 .route("order-service", r -> r
                         .path("/api/orders/**")
@@ -39,12 +43,26 @@ public class GatewayConfig {
                         .path("/api/products/**")
                         .filters(f -> f
                                 .stripPrefix(2)
+                                // Cache antes del circuit breaker: con el circuito abierto puede responder la copia stale
+                                .filter(productsCacheGatewayFilter.apply(new ProductsCacheGatewayFilter.Config() {{
+                                    setTtl(Duration.ofHours(1)); // Las escrituras de productos invalidan la cache al momento
+                                    setL1Ttl(Duration.ofSeconds(10)); // Cache en memoria del gateway (L1)
+                                    setStaleWhileRevalidate(Duration.ofMinutes(1)); // Sirve STALE y refresca en segundo plano
+                                    setStaleIfError(Duration.ofMinutes(30)); // Respaldo si el servicio falla
+                                    setCompression(CacheCodec.GZIP); // Cuerpos comprimidos en Redis y L1
+                                    setCacheablePaths(List.of(
+                                            "/api/products",
+                                            "/api/products/category/{category}", // Tag category:<categoria>
+                                            "/api/products/price-range")); // Patrones compilados una sola vez
+                                }}))
+                                // GET /{id} concurrentes -> un solo POST /batch (cacheado por id en product-service)
+                                .filter(productBatchingGatewayFilter.apply(new ProductBatchingGatewayFilter.Config() {{
+                                    setWindow(Duration.ofMillis(5));
+                                    setMaxBatchSize(100);
+                                }}))
                                 .circuitBreaker(c -> c
                                         .setName("productServiceCircuitBreaker")
-                                        .setFallbackUri("forward:/fallback"))
-                                .filter(productsCacheGatewayFilter.apply(new ProductsCacheGatewayFilter.Config() {{
-                                    setTtl(Duration.ofMinutes(2)); // Set TTL to 2 minutes
-                                }})))
+                                        .setFallbackUri("forward:/fallback")))
                         .uri("lb://product-service"))   
 
                 .route("payment-service", r -> r
@@ -0,0 +1,55 @@
+package unimagdalena.edu.gateway.filters.batching;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Llama al multi-get de product-service y separa la respuesta por id, con cada producto ya
+ * serializado tal como lo devolveria {@code GET /{id}}.
+ */
+@Component
+public class ProductBatchClient {
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+
+    public ProductBatchClient(WebClient.Builder webClientBuilder,
+                              ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                              ObjectMapper objectMapper) {
+        this.webClient = webClientBuilder.filter(loadBalancerFunction).build();
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<Map<String, byte[]>> fetch(URI batchUri, Collection<String> ids) {
+        return webClient.post()
+                .uri(batchUri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ids)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(this::byId);
+    }
+
+    private Map<String, byte[]> byId(JsonNode products) {
+        Map<String, byte[]> found = new HashMap<>();
+        for (JsonNode product : products) {
+            try {
+                found.put(product.path("id").asText(), objectMapper.writeValueAsBytes(product));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unable to serialize product " + product.path("id").asText(), e);
+            }
+        }
+        return found;
+    }
+}
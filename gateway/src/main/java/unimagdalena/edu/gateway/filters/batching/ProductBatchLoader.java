@@ -0,0 +1,74 @@
+package unimagdalena.edu.gateway.filters.batching;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Agrupa las busquedas por id que llegan dentro de una ventana corta (o hasta llenar el lote) y las
+ * resuelve con una sola llamada. Cada solicitante recibe su producto, o vacio si no existe.
+ */
+class ProductBatchLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBatchLoader.class);
+
+    private FluxSink<Pending> queue;
+    private final Function<Set<String>, Mono<Map<String, byte[]>>> fetcher;
+    private final DistributionSummary batchSizes;
+
+    ProductBatchLoader(Function<Set<String>, Mono<Map<String, byte[]>>> fetcher,
+                       int maxBatchSize,
+                       Duration window,
+                       DistributionSummary batchSizes) {
+        this.fetcher = fetcher;
+        this.batchSizes = batchSizes;
+        // El FluxSink de Flux.create serializa los next concurrentes con una cola sin bloqueo: varios hilos
+        // del event loop encolan a la vez sin reintentos ni esperas activas. La suscripcion es sincrona,
+        // asi que queue ya esta asignado al salir del constructor
+        Flux.<Pending>create(sink -> queue = sink, FluxSink.OverflowStrategy.BUFFER)
+                .bufferTimeout(maxBatchSize, window)
+                .flatMap(this::dispatch)
+                .subscribe();
+    }
+
+    Mono<Optional<byte[]>> load(String id) {
+        return Mono.defer(() -> {
+            Pending pending = new Pending(id, Sinks.one());
+            queue.next(pending);
+            return pending.result().asMono();
+        });
+    }
+
+    private Mono<Void> dispatch(List<Pending> batch) {
+        Set<String> ids = new LinkedHashSet<>();
+        batch.forEach(pending -> ids.add(pending.id()));
+        batchSizes.record(ids.size());
+
+        return fetcher.apply(ids)
+                .defaultIfEmpty(Map.of())
+                .doOnNext(found -> batch.forEach(pending ->
+                        pending.result().tryEmitValue(Optional.ofNullable(found.get(pending.id())))))
+                .doOnError(error -> {
+                    logger.warn("Batch lookup of {} products failed: {}", ids.size(), error.getMessage());
+                    batch.forEach(pending -> pending.result().tryEmitError(error));
+                })
+                // El error ya se entrego a cada solicitante; el flujo de lotes sigue activo
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private record Pending(String id, Sinks.One<Optional<byte[]>> result) {
+    }
+}
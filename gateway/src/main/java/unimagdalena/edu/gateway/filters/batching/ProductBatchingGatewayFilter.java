@@ -0,0 +1,182 @@
+package unimagdalena.edu.gateway.filters.batching;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+
+/**
+ * Convierte los {@code GET /api/products/{id}} concurrentes en llamadas al multi-get de
+ * product-service: las peticiones que llegan dentro de {@code window} comparten un solo
+ * {@code POST /batch}. Si el lote falla cada peticion sigue su camino normal por la ruta.
+ * <p>
+ * {@code /api/products/{id}} no esta en los {@code cacheablePaths} de la ruta: el gateway no guarda
+ * estas respuestas y la cache por producto es la de product-service, cuyo multi-get consulta
+ * {@code PRODUCT_CACHE} antes de ir a Mongo. Como el filtro va antes del circuit breaker de la ruta,
+ * el {@code POST /batch} pasa por ese mismo breaker por su cuenta.
+ */
+@Component
+public class ProductBatchingGatewayFilter extends AbstractGatewayFilterFactory<ProductBatchingGatewayFilter.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBatchingGatewayFilter.class);
+
+    private final ProductBatchClient batchClient;
+    private final ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory;
+    private final Counter batchedRequestCounter;
+    private final Counter fallbackCounter;
+    private final DistributionSummary batchSizeSummary;
+
+    public ProductBatchingGatewayFilter(ProductBatchClient batchClient,
+                                        ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                                        MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.batchClient = batchClient;
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.batchedRequestCounter = Counter.builder("gateway_batch_requests")
+                .description("Number of single-product GETs answered through a batched lookup")
+                .tag("service", "products")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("gateway_batch_fallbacks")
+                .description("Number of single-product GETs forwarded individually because the batched lookup failed")
+                .tag("service", "products")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("gateway_batch_size")
+                .description("Distinct product ids per batched lookup")
+                .tag("service", "products")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        PathPattern pattern = PathPatternParser.defaultInstance.parse(config.getPathPattern());
+        URI batchUri = URI.create(config.getBatchUri());
+        // Mismo nombre que el breaker de la ruta: comparten estado, y con el circuito abierto el lote falla
+        // al momento y cada peticion sigue hacia el fallback de la ruta
+        ReactiveCircuitBreaker circuitBreaker = circuitBreakerFactory.create(config.getCircuitBreakerName());
+        // Un cargador por ruta: su ventana agrupa las peticiones de todos los clientes
+        ProductBatchLoader loader = new ProductBatchLoader(
+                ids -> circuitBreaker.run(batchClient.fetch(batchUri, ids).timeout(config.getTimeout())),
+                config.getMaxBatchSize(), config.getWindow(), batchSizeSummary);
+
+        return (exchange, chain) -> {
+            URI originalUri = originalRequestUri(exchange);
+            PathPattern.PathMatchInfo match = HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                    && originalUri.getRawQuery() == null
+                    ? pattern.matchAndExtract(PathContainer.parsePath(originalUri.getRawPath()))
+                    : null;
+            if (match == null) {
+                return chain.filter(exchange);
+            }
+
+            String id = match.getUriVariables().get("id");
+            return loader.load(id)
+                    .map(product -> writeProduct(exchange, product))
+                    .onErrorResume(error -> {
+                        fallbackCounter.increment();
+                        return Mono.just(chain.filter(exchange));
+                    })
+                    .flatMap(response -> response);
+        };
+    }
+
+    private Mono<Void> writeProduct(ServerWebExchange exchange, Optional<byte[]> product) {
+        batchedRequestCounter.increment();
+        ServerHttpResponse response = exchange.getResponse();
+        if (product.isEmpty()) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(product.get().length);
+        DataBuffer buffer = response.bufferFactory().wrap(product.get());
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private URI originalRequestUri(ServerWebExchange exchange) {
+        Set<URI> originalUris = exchange.getAttributeOrDefault(GATEWAY_ORIGINAL_REQUEST_URL_ATTR, Collections.emptySet());
+        return originalUris.isEmpty() ? exchange.getRequest().getURI() : originalUris.iterator().next();
+    }
+
+    public static class Config {
+        // Solo ids con forma de UUID: /export, /page, /batch... siguen por la ruta normal
+        private String pathPattern = "/api/products/{id:[0-9a-fA-F\\-]{36}}";
+        private String batchUri = "lb://product-service/batch";
+        private Duration window = Duration.ofMillis(5);
+        private int maxBatchSize = 100;
+        private Duration timeout = Duration.ofSeconds(2);
+        private String circuitBreakerName = "productServiceCircuitBreaker";
+
+        public String getPathPattern() {
+            return pathPattern;
+        }
+
+        public void setPathPattern(String pathPattern) {
+            this.pathPattern = pathPattern;
+        }
+
+        public String getBatchUri() {
+            return batchUri;
+        }
+
+        public void setBatchUri(String batchUri) {
+            this.batchUri = batchUri;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public String getCircuitBreakerName() {
+            return circuitBreakerName;
+        }
+
+        public void setCircuitBreakerName(String circuitBreakerName) {
+            this.circuitBreakerName = circuitBreakerName;
+        }
+    }
+}
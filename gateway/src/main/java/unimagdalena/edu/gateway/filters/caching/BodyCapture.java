@@ -0,0 +1,80 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Copia los chunks de una respuesta a medida que pasan hacia el cliente, sin consumirlos,
+ * en un buffer del pool de Netty limitado a {@code maxBytes}. Si se supera el limite se
+ * libera el buffer y la respuesta simplemente no se cachea.
+ */
+public class BodyCapture {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+
+    private final DataBufferFactory bufferFactory;
+    private final long maxBytes;
+    private DataBuffer accumulator;
+    private boolean overflowed;
+
+    public BodyCapture(DataBufferFactory bufferFactory, long maxBytes) {
+        this.bufferFactory = bufferFactory;
+        this.maxBytes = maxBytes;
+    }
+
+    public void append(DataBuffer chunk) {
+        if (overflowed) {
+            return;
+        }
+        int size = accumulated() + chunk.readableByteCount();
+        if (size > maxBytes) {
+            overflowed = true;
+            release();
+            return;
+        }
+        if (accumulator == null) {
+            accumulator = bufferFactory.allocateBuffer((int) Math.min(maxBytes, Math.max(INITIAL_CAPACITY, size)));
+        }
+        // readableByteBuffers() expone vistas de solo lectura: la posicion del chunk original no cambia
+        try (DataBuffer.ByteBufferIterator iterator = chunk.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                ByteBuffer view = iterator.next();
+                accumulator.ensureWritable(view.remaining());
+                accumulator.write(view);
+            }
+        }
+    }
+
+    public boolean isOverflowed() {
+        return overflowed;
+    }
+
+    /**
+     * Devuelve el cuerpo capturado y libera el buffer del pool, o {@code null} si se desbordo.
+     */
+    public byte[] drain() {
+        if (overflowed) {
+            return null;
+        }
+        byte[] bytes = new byte[accumulated()];
+        if (accumulator != null) {
+            accumulator.read(bytes);
+        }
+        release();
+        return bytes;
+    }
+
+    public void release() {
+        if (accumulator != null) {
+            DataBufferUtils.release(accumulator);
+            accumulator = null;
+        }
+    }
+
+    private int accumulated() {
+        return accumulator == null ? 0 : accumulator.readableByteCount();
+    }
+}
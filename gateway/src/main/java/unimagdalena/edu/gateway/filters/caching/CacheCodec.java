@@ -0,0 +1,88 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Formatos en los que se guarda el cuerpo cacheado. Todos son valores validos de Content-Encoding,
+ * asi que una entrada comprimida se puede enviar tal cual al cliente que la acepte.
+ */
+public enum CacheCodec {
+
+    IDENTITY(0, "identity"),
+    GZIP(1, "gzip"),
+    // zlib con nivel BEST_SPEED: menos CPU por escritura que gzip a costa de algo de ratio
+    DEFLATE(2, "deflate");
+
+    private final byte id;
+    private final String contentEncoding;
+
+    CacheCodec(int id, String contentEncoding) {
+        this.id = (byte) id;
+        this.contentEncoding = contentEncoding;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public static CacheCodec fromId(byte id) {
+        for (CacheCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    public byte[] encode(byte[] body) {
+        if (this == IDENTITY) {
+            return body;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        if (this == GZIP) {
+            try (OutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // Con un Deflater propio el stream no libera la memoria nativa al cerrarse
+            deflater.end();
+        }
+        return buffer.toByteArray();
+    }
+
+    public byte[] decode(byte[] stored) {
+        if (this == IDENTITY) {
+            return stored;
+        }
+        try (InputStream in = this == GZIP
+                ? new GZIPInputStream(new ByteArrayInputStream(stored))
+                : new InflaterInputStream(new ByteArrayInputStream(stored))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Escucha el canal donde product-service publica las claves (o patrones) que invalida en Redis
+ * y los aplica tambien sobre la cache L1 local de este gateway.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    public static final String INVALIDATION_CHANNEL = "products:cache:invalidations";
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final LocalResponseCache localCache;
+    private Disposable subscription;
+
+    public CacheInvalidationListener(ReactiveStringRedisTemplate redisTemplate, LocalResponseCache localCache) {
+        this.redisTemplate = redisTemplate;
+        this.localCache = localCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        // defer: listenToChannel abre la conexion al invocarse, asi un Redis caido se reintenta en lugar de fallar el arranque
+        subscription = Flux.defer(() -> redisTemplate.listenToChannel(INVALIDATION_CHANNEL))
+                .doOnNext(message -> {
+                    // Un mensaje puede traer varias claves/patrones, uno por linea (lotes de la invalidacion por tags)
+                    int removed = 0;
+                    String[] patterns = message.getMessage().split("\n");
+                    for (String pattern : patterns) {
+                        removed += localCache.invalidate(pattern);
+                    }
+                    logger.info("L1 invalidation for {} keys/patterns removed {} entries", patterns.length, removed);
+                })
+                .doOnError(error -> logger.warn("Cache invalidation subscription failed, retrying: {}", error.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decide que rutas se cachean y construye la clave canonica de cada request. Los patrones se
+ * compilan una sola vez al crear el filtro, no en cada peticion.
+ * <p>
+ * Clave: {@code prefijo + path + ?query ordenada + ;cabecera=valor por las que varia}. Dos URLs con
+ * los mismos parametros en distinto orden comparten entrada. Cada componente se codifica con %XX salvo
+ * los caracteres no reservados de URI y '/', asi los separadores ({@code ? & = ;}) nunca aparecen dentro
+ * de un componente y dos requests distintas no pueden dar la misma clave. Tampoco queda ningun '*'
+ * que la invalidacion L1 confunda con un patron.
+ */
+public class CacheKeyBuilder {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String prefix;
+    private final List<PathPattern> cacheablePaths;
+    private final List<String> varyHeaders;
+    private final Set<String> ignoredQueryParams;
+
+    public CacheKeyBuilder(String prefix,
+                           Collection<String> cacheablePaths,
+                           Collection<String> varyHeaders,
+                           Collection<String> ignoredQueryParams) {
+        this.prefix = prefix;
+        this.cacheablePaths = cacheablePaths.stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        // Orden fijo para que la clave no dependa del orden de configuracion
+        this.varyHeaders = varyHeaders.stream()
+                .map(header -> header.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .toList();
+        this.ignoredQueryParams = Set.copyOf(ignoredQueryParams);
+    }
+
+    public boolean isCacheable(URI uri) {
+        PathContainer path = PathContainer.parsePath(uri.getRawPath());
+        for (PathPattern pattern : cacheablePaths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tags de invalidacion de la entrada: siempre {@link CacheTagIndex#ALL_TAG}, mas
+     * {@code product:<id>} / {@code category:<categoria>} si el patron tiene esas variables,
+     * o {@link CacheTagIndex#LIST_TAG} si no tiene ninguna.
+     */
+    public List<String> tags(URI uri) {
+        PathContainer path = PathContainer.parsePath(uri.getRawPath());
+        List<String> tags = new ArrayList<>(3);
+        tags.add(CacheTagIndex.ALL_TAG);
+        for (PathPattern pattern : cacheablePaths) {
+            PathPattern.PathMatchInfo match = pattern.matchAndExtract(path);
+            if (match != null) {
+                Map<String, String> variables = match.getUriVariables();
+                if (variables.isEmpty()) {
+                    tags.add(CacheTagIndex.LIST_TAG);
+                }
+                if (variables.containsKey("id")) {
+                    tags.add("product:" + variables.get("id"));
+                }
+                if (variables.containsKey("category")) {
+                    tags.add("category:" + variables.get("category"));
+                }
+                break;
+            }
+        }
+        return tags;
+    }
+
+    public String build(URI uri, HttpHeaders headers) {
+        StringBuilder key = new StringBuilder(prefix.length() + 64).append(prefix);
+        appendEncoded(key, uri.getRawPath());
+
+        String query = uri.getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            List<String> params = new ArrayList<>(Arrays.asList(query.split("&")));
+            params.removeIf(param -> param.isEmpty() || ignoredQueryParams.contains(paramName(param)));
+            params.sort(null);
+            char separator = '?';
+            for (String param : params) {
+                key.append(separator);
+                separator = '&';
+                int equals = param.indexOf('=');
+                if (equals < 0) {
+                    appendEncoded(key, param);
+                } else {
+                    appendEncoded(key, param.substring(0, equals));
+                    key.append('=');
+                    appendEncoded(key, param.substring(equals + 1));
+                }
+            }
+        }
+
+        for (String header : varyHeaders) {
+            List<String> values = headers.get(header);
+            key.append(';');
+            appendEncoded(key, header);
+            // Sin '=' si la cabecera falta: distinta de una cabecera presente pero vacia
+            if (values != null) {
+                key.append('=');
+                appendEncoded(key, values.stream().map(String::trim).collect(Collectors.joining(",")));
+            }
+        }
+        return key.toString();
+    }
+
+    private static String paramName(String param) {
+        int separator = param.indexOf('=');
+        return separator < 0 ? param : param.substring(0, separator);
+    }
+
+    private static void appendEncoded(StringBuilder key, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            boolean unreserved = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~' || c == '/';
+            if (unreserved) {
+                key.append(c);
+            } else {
+                key.append('%').append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Indice de invalidacion por tags: un set de Redis por tag con las claves de cache que lo llevan.
+ * product-service borra por pertenencia al set en lugar de recorrer el keyspace con KEYS.
+ * <p>
+ * Tags: {@value #ALL_TAG} en todas las entradas, {@value #LIST_TAG} en los listados generales, y
+ * {@code product:<id>} / {@code category:<categoria>} segun las variables de la ruta cacheada.
+ * <p>
+ * Las escrituras normales no vacian el set de {@value #ALL_TAG} y cada entrada nueva le renueva el TTL,
+ * asi que conservaria para siempre las claves de entradas ya expiradas. Se poda periodicamente con SSCAN.
+ */
+@Component
+public class CacheTagIndex {
+
+    public static final String TAG_PREFIX = "products:cache-tags:";
+    public static final String ALL_TAG = "all";
+    // Listados sin variables de ruta (p. ej. GET /api/products): cambian con cualquier escritura de producto
+    public static final String LIST_TAG = "list";
+    // product-service lo incrementa antes de cada invalidacion
+    public static final String GENERATION_KEY = "products:cache-generation";
+    // Generacion usada si no se pudo leer: no coincide con ninguna, asi que la entrada no se guarda
+    static final String UNKNOWN_GENERATION = "-1";
+
+    // KEYS: entrada, generacion, sets de tags. ARGV: generacion leida antes de ir al servicio, TTL en ms, valor
+    private static final RedisScript<Long> STORE_SCRIPT = RedisScript.of("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+                return 0
+            end
+            for i = 3, #KEYS do
+                redis.call('SADD', KEYS[i], KEYS[1])
+                redis.call('PEXPIRE', KEYS[i], ARGV[2])
+            end
+            redis.call('SET', KEYS[1], ARGV[3], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    // KEYS: set del tag y las claves a revisar. Comprobar y quitar en el mismo script: un STORE_SCRIPT
+    // intermedio no puede volver a guardar la clave entre el EXISTS y el SREM y quedar sin tag
+    private static final RedisScript<Long> PRUNE_SCRIPT = RedisScript.of("""
+            local removed = 0
+            for i = 2, #KEYS do
+                if redis.call('EXISTS', KEYS[i]) == 0 then
+                    removed = removed + redis.call('SREM', KEYS[1], KEYS[i])
+                end
+            end
+            return removed
+            """, Long.class);
+    private static final int PRUNE_BATCH_SIZE = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheTagIndex.class);
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final Duration pruneInterval;
+    private Disposable pruning;
+
+    public CacheTagIndex(ReactiveRedisTemplate<String, byte[]> redisTemplate,
+                         @Value("${gateway.cache.tag-prune-interval:5m}") Duration pruneInterval) {
+        this.redisTemplate = redisTemplate;
+        this.pruneInterval = pruneInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPruning() {
+        // Con varias replicas podan todas: SREM es idempotente y el coste es un SSCAN por intervalo
+        pruning = Flux.interval(pruneInterval, pruneInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> prune(ALL_TAG)
+                        .doOnNext(removed -> logger.debug("Pruned {} expired keys from cache tag {}", removed, ALL_TAG))
+                        .onErrorResume(error -> {
+                            logger.warn("Could not prune cache tag {}: {}", ALL_TAG, error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stopPruning() {
+        if (pruning != null) {
+            pruning.dispose();
+        }
+    }
+
+    /**
+     * Quita del set del tag las claves cuya entrada ya no existe. Devuelve cuantas quito.
+     */
+    public Mono<Long> prune(String tag) {
+        String setKey = TAG_PREFIX + tag;
+        return redisTemplate.opsForSet()
+                .scan(setKey, ScanOptions.scanOptions().count(PRUNE_BATCH_SIZE).build())
+                .map(member -> new String(member, StandardCharsets.UTF_8))
+                .buffer(PRUNE_BATCH_SIZE)
+                .concatMap(members -> {
+                    List<String> keys = new ArrayList<>(members.size() + 1);
+                    keys.add(setKey);
+                    keys.addAll(members);
+                    return redisTemplate.execute(PRUNE_SCRIPT, keys, List.of()).next();
+                })
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Generacion de invalidacion actual. Se lee antes de pedir la respuesta al servicio y se pasa a
+     * {@link #store}.
+     */
+    public Mono<String> generation() {
+        return redisTemplate.opsForValue().get(GENERATION_KEY)
+                .map(value -> new String(value, StandardCharsets.UTF_8))
+                .defaultIfEmpty("0")
+                .onErrorReturn(UNKNOWN_GENERATION);
+    }
+
+    /**
+     * Guarda la entrada y la registra en cada tag en un solo script, atomico en Redis: no queda una entrada
+     * sin tag que ninguna invalidacion pueda borrar. Si la generacion cambio desde {@code generation}, la
+     * respuesta pudo leerse antes de una escritura ya invalidada y no se guarda (devuelve false).
+     * Cada set se renueva con el TTL de la entrada mas reciente, asi no queda huerfano.
+     */
+    public Mono<Boolean> store(String cacheKey, byte[] value, Collection<String> tags, Duration ttl, String generation) {
+        List<String> keys = new ArrayList<>(tags.size() + 2);
+        keys.add(cacheKey);
+        keys.add(GENERATION_KEY);
+        tags.forEach(tag -> keys.add(TAG_PREFIX + tag));
+        List<byte[]> args = List.of(
+                generation.getBytes(StandardCharsets.UTF_8),
+                Long.toString(ttl.toMillis()).getBytes(StandardCharsets.UTF_8),
+                value);
+        return redisTemplate.execute(STORE_SCRIPT, keys, args)
+                .next()
+                .map(stored -> stored == 1L)
+                .defaultIfEmpty(false);
+    }
+}
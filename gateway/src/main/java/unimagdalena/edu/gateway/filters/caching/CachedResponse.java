@@ -0,0 +1,122 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Respuesta cacheada: el cuerpo tal como se guarda (posiblemente comprimido), su ETag y el instante
+ * en que se guardo, necesario para distinguir entre fresca, stale-while-revalidate y stale-if-error.
+ */
+public class CachedResponse {
+
+    // Primer byte del valor en Redis; las entradas en texto de versiones anteriores empiezan por un digito
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 1 + Long.BYTES + 1 + Short.BYTES;
+
+    private final byte[] body;
+    private final CacheCodec codec;
+    private final String etag;
+    private final long storedAtMillis;
+
+    public CachedResponse(byte[] body, long storedAtMillis) {
+        this(body, null, storedAtMillis);
+    }
+
+    /**
+     * Si {@code etag} es {@code null} (el servicio no envio uno) se calcula un ETag fuerte a partir del cuerpo.
+     */
+    public CachedResponse(byte[] body, String etag, long storedAtMillis) {
+        this(body, CacheCodec.IDENTITY, etag != null ? etag : strongEtag(body), storedAtMillis);
+    }
+
+    private CachedResponse(byte[] body, CacheCodec codec, String etag, long storedAtMillis) {
+        this.body = body;
+        this.codec = codec;
+        this.etag = etag;
+        this.storedAtMillis = storedAtMillis;
+    }
+
+    /**
+     * Bytes tal como estan guardados, codificados con {@link #getCodec()}.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    public CacheCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Cuerpo sin comprimir, para clientes que no aceptan el Content-Encoding guardado.
+     */
+    public byte[] decodedBody() {
+        return codec.decode(body);
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getStoredAtMillis() {
+        return storedAtMillis;
+    }
+
+    public Duration age(long nowMillis) {
+        return Duration.ofMillis(Math.max(0, nowMillis - storedAtMillis));
+    }
+
+    /**
+     * Misma respuesta comprimida con {@code target}. El ETag guardado es el de la representacion identity;
+     * el filtro le agrega el encoding cuando envia los bytes comprimidos.
+     */
+    public CachedResponse encodedWith(CacheCodec target) {
+        if (codec != CacheCodec.IDENTITY || target == CacheCodec.IDENTITY) {
+            return this;
+        }
+        return new CachedResponse(target.encode(body), target, etag, storedAtMillis);
+    }
+
+    /**
+     * Formato binario en Redis: version, storedAtMillis, codec, longitud y bytes del ETag, cuerpo.
+     */
+    public byte[] encode() {
+        byte[] etagBytes = etag.getBytes(StandardCharsets.US_ASCII);
+        return ByteBuffer.allocate(HEADER_SIZE + etagBytes.length + body.length)
+                .put(FORMAT_VERSION)
+                .putLong(storedAtMillis)
+                .put(codec.getId())
+                .putShort((short) etagBytes.length)
+                .put(etagBytes)
+                .put(body)
+                .array();
+    }
+
+    /**
+     * Devuelve {@code null} si el valor no tiene el formato esperado (p. ej. entradas de versiones anteriores).
+     */
+    public static CachedResponse decode(byte[] value) {
+        if (value.length < HEADER_SIZE || value[0] != FORMAT_VERSION) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(value, 1, value.length - 1);
+        long storedAt = buffer.getLong();
+        CacheCodec codec = CacheCodec.fromId(buffer.get());
+        int etagLength = Short.toUnsignedInt(buffer.getShort());
+        if (codec == null || etagLength == 0 || etagLength > buffer.remaining()) {
+            return null;
+        }
+        byte[] etagBytes = new byte[etagLength];
+        buffer.get(etagBytes);
+        byte[] body = new byte[buffer.remaining()];
+        buffer.get(body);
+        return new CachedResponse(body, codec, new String(etagBytes, StandardCharsets.US_ASCII), storedAt);
+    }
+
+    private static String strongEtag(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+}
@@ -0,0 +1,168 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Cache L1 en memoria delante de Redis. Guarda los cuerpos ya codificados en bytes para
+ * escribirlos con bufferFactory().wrap sin reconvertirlos. Acotado por numero de entradas
+ * y por bytes totales, y cada entrada expira con el TTL L1 de la ruta.
+ * <p>
+ * Sobre Caffeine: lecturas sin lock global, a diferencia de un LinkedHashMap en orden de acceso,
+ * donde cada get reordena la lista y obliga a sincronizar todos los accesos.
+ */
+@Component
+public class LocalResponseCache {
+
+    private final long maxBytes;
+    private final Cache<String, Entry> entries;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter expiredEvictionCounter;
+    private final Counter invalidatedEvictionCounter;
+
+    public LocalResponseCache(@Value("${gateway.cache.local.max-entries:1000}") long maxEntries,
+                              @Value("${gateway.cache.local.max-size:64MB}") DataSize maxSize,
+                              MeterRegistry meterRegistry) {
+        this.maxBytes = maxSize.toBytes();
+
+        this.hitCounter = Counter.builder("gateway_l1_cache_hits")
+                .description("Number of in-process (L1) cache hits")
+                .tag("service", "products")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("gateway_l1_cache_misses")
+                .description("Number of in-process (L1) cache misses")
+                .tag("service", "products")
+                .register(meterRegistry);
+        this.sizeEvictionCounter = evictionCounter(meterRegistry, "size");
+        this.expiredEvictionCounter = evictionCounter(meterRegistry, "expired");
+        this.invalidatedEvictionCounter = evictionCounter(meterRegistry, "invalidated");
+
+        // Caffeine no combina maximumSize con maximumWeight. Cada entrada pesa al menos la parte que le
+        // toca del total (maxBytes / maxEntries): asi el peso maximo acota los bytes y tambien el numero
+        long minWeight = Math.max(1, maxBytes / Math.max(1, maxEntries));
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, entry.size())))
+                // TTL por entrada: cada ruta tiene el suyo, no sirve un expireAfterWrite comun
+                .expireAfter(new EntryExpiry())
+                .evictionListener((String key, Entry entry, RemovalCause cause) -> {
+                    if (cause == RemovalCause.EXPIRED) {
+                        expiredEvictionCounter.increment();
+                    } else if (cause == RemovalCause.SIZE) {
+                        sizeEvictionCounter.increment();
+                    }
+                })
+                .build();
+
+        Gauge.builder("gateway_l1_cache_entries", this, LocalResponseCache::size)
+                .description("Entries currently held in the L1 cache")
+                .tag("service", "products")
+                .register(meterRegistry);
+        Gauge.builder("gateway_l1_cache_bytes", this, LocalResponseCache::bytes)
+                .description("Body bytes currently held in the L1 cache")
+                .tag("service", "products")
+                .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return entry.response;
+    }
+
+    public void put(String key, CachedResponse response, Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative() || response.getBody().length > maxBytes) {
+            return;
+        }
+        entries.put(key, new Entry(response, ttl.toNanos()));
+    }
+
+    /**
+     * Elimina las entradas cuya clave coincide con el patron (soporta '*', igual que KEYS en Redis).
+     */
+    public int invalidate(String pattern) {
+        // Clave exacta (invalidacion por tags): sin recorrer toda la cache
+        if (pattern.indexOf('*') < 0) {
+            int removed = entries.asMap().remove(pattern) != null ? 1 : 0;
+            invalidatedEvictionCounter.increment(removed);
+            return removed;
+        }
+        int removed = 0;
+        for (String key : entries.asMap().keySet()) {
+            if (PatternMatchUtils.simpleMatch(pattern, key) && entries.asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        invalidatedEvictionCounter.increment(removed);
+        return removed;
+    }
+
+    public int size() {
+        entries.cleanUp();
+        return entries.asMap().size();
+    }
+
+    public long bytes() {
+        // Solo se lee al exportar metricas: recorrer la cache es mas barato que llevar la cuenta en cada escritura
+        entries.cleanUp();
+        return entries.asMap().values().stream().mapToLong(Entry::size).sum();
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("gateway_l1_cache_evictions")
+                .description("Number of entries removed from the L1 cache")
+                .tag("service", "products")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return entry.ttlNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static final class Entry {
+        private final CachedResponse response;
+        private final long ttlNanos;
+
+        private Entry(CachedResponse response, long ttlNanos) {
+            this.response = response;
+            this.ttlNanos = ttlNanos;
+        }
+
+        private int size() {
+            return response.getBody().length;
+        }
+    }
+}
@@ -3,46 +3,91 @@ package unimagdalena.edu.gateway.filters.caching;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
-import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.function.Supplier;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
 
 @Component
 public class ProductsCacheGatewayFilter extends AbstractGatewayFilterFactory<ProductsCacheGatewayFilter.Config> {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductsCacheGatewayFilter.class);
     private static final String CACHE_PREFIX = "products:cache:";
+    // Tags de invalidacion de la request actual, calculados junto con la clave
+    private static final String CACHE_TAGS_ATTR = ProductsCacheGatewayFilter.class.getName() + ".tags";
     private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    private static final Duration DEFAULT_L1_TTL = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_COALESCE_TIMEOUT = Duration.ofSeconds(5);
+    private static final DataSize DEFAULT_MAX_CACHEABLE_SIZE = DataSize.ofMegabytes(1);
+    // Por debajo de este tamaño comprimir no compensa la cabecera del formato
+    private static final int MIN_COMPRESSIBLE_SIZE = 256;
+    private static final Pattern ZERO_QUALITY = Pattern.compile("q=0(\\.0*)?");
 
-    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
     private final ObjectMapper objectMapper;
+    private final LocalResponseCache localCache;
+    private final UpstreamRefresher upstreamRefresher;
+    private final CacheTagIndex tagIndex;
+    private final ConcurrentMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
     private final Counter cacheHitCounter;
     private final Counter cacheMissCounter;
+    private final Counter cacheStaleCounter;
+    private final Counter cacheOversizeCounter;
+    private final Counter cacheCoalescedCounter;
+    private final Counter notModifiedCounter;
+    private final Counter decompressedCounter;
+    private final Timer missFirstByteTimer;
 
-    public ProductsCacheGatewayFilter(ReactiveStringRedisTemplate redisTemplate,
+    public ProductsCacheGatewayFilter(ReactiveRedisTemplate<String, byte[]> redisTemplate,
                                       ObjectMapper objectMapper,
+                                      LocalResponseCache localCache,
+                                      UpstreamRefresher upstreamRefresher,
+                                      CacheTagIndex tagIndex,
                                       MeterRegistry meterRegistry) {
 
         super(Config.class);
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
+        this.localCache = localCache;
+        this.upstreamRefresher = upstreamRefresher;
+        this.tagIndex = tagIndex;
         this.cacheHitCounter = Counter.builder("gateway_cache_hits")
                 .description("Number of cache hits")
                 .tag("service", "products")
@@ -51,14 +96,43 @@ public class ProductsCacheGatewayFilter extends AbstractGatewayFilterFactory<Pro
                 .description("Number of cache misses")
                 .tag("service", "products")
                 .register(meterRegistry);
+        this.cacheStaleCounter = Counter.builder("gateway_cache_stale_hits")
+                .description("Number of responses served from an expired (stale) cache entry")
+                .tag("service", "products")
+                .register(meterRegistry);
+        this.cacheCoalescedCounter = Counter.builder("gateway_cache_coalesced")
+                .description("Number of cache misses served by joining an in-flight upstream request")
+                .tag("service", "products")
+                .register(meterRegistry);
+        this.notModifiedCounter = Counter.builder("gateway_cache_not_modified")
+                .description("Number of conditional requests answered with 304 from the cache")
+                .tag("service", "products")
+                .register(meterRegistry);
+        this.decompressedCounter = Counter.builder("gateway_cache_decompressions")
+                .description("Number of compressed cache entries decompressed for clients that do not accept the encoding")
+                .tag("service", "products")
+                .register(meterRegistry);
+        this.cacheOversizeCounter = Counter.builder("gateway_cache_oversize_skips")
+                .description("Number of responses not cached because they exceed the max cacheable size")
+                .tag("service", "products")
+                .register(meterRegistry);
+        this.missFirstByteTimer = Timer.builder("gateway_cache_miss_first_byte")
+                .description("Time from cache miss to the first response chunk written to the client")
+                .tag("service", "products")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         logger.info("Configuring gateway filter");
+        // Patrones y cabeceras se resuelven una vez por ruta, no en cada request
+        CacheKeyBuilder keyBuilder = new CacheKeyBuilder(CACHE_PREFIX, config.getCacheablePaths(),
+                config.getVaryHeaders(), config.getIgnoredQueryParams());
         return (exchange, chain) -> {
             String method = exchange.getRequest().getMethod().name();
-            String path = exchange.getRequest().getPath().value();
+            // URI tal como la envio el cliente: StripPrefix ya quito /api/products del path de la request
+            URI originalUri = originalRequestUri(exchange);
 
             // Solo cachear requests GET
             if (!"GET".equals(method)) {
@@ -66,93 +140,337 @@ public class ProductsCacheGatewayFilter extends AbstractGatewayFilterFactory<Pro
             }
 
             // Solo cachear rutas específicas de productos
-            if (!shouldCache(path)) {
+            if (!keyBuilder.isCacheable(originalUri)) {
                 return chain.filter(exchange);
             }
 
-            String cacheKey = generateCacheKey(exchange.getRequest().getURI().toString());
+            String cacheKey = keyBuilder.build(originalUri, exchange.getRequest().getHeaders());
+            exchange.getAttributes().put(CACHE_TAGS_ATTR, keyBuilder.tags(originalUri));
+            config.getVaryHeaders().forEach(header -> exchange.getResponse().getHeaders().add(HttpHeaders.VARY, header));
 
             logger.debug("Checking cache for key: {}", cacheKey);
 
-            ServerHttpResponse originalResponse = exchange.getResponse();
-            DataBufferFactory bufferFactory = originalResponse.bufferFactory();
+            // L1: cache en memoria, sin ida y vuelta a Redis
+            CachedResponse local = localCache.get(cacheKey);
+            if (local != null) {
+                return serveCached(exchange, chain, config, cacheKey, local);
+            }
+
+            // L2: Redis. Los HIT se escriben sobre la respuesta original para no pasar por la captura.
+            // Optional en lugar de switchIfEmpty: el Mono<Void> del HIT termina vacio y dispararia tambien el MISS
+            return redisTemplate.opsForValue().get(cacheKey)
+                    .mapNotNull(CachedResponse::decode)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(cachedResponse -> {
+                        if (cachedResponse.isPresent()) {
+                            localCache.put(cacheKey, cachedResponse.get(), config.getL1Ttl());
+                            return serveCached(exchange, chain, config, cacheKey, cachedResponse.get());
+                        }
+                        // Cache MISS - continue with original request and cache response
+                        logger.info("Cache MISS for key: {}", cacheKey);
+                        cacheMissCounter.increment();
+                        return forwardOrJoin(exchange, chain, config, cacheKey, null);
+                    });
+        };
+    }
+
+    /**
+     * Fresca (edad <= ttl): HIT. Dentro de staleWhileRevalidate: STALE y refresco en segundo plano.
+     * Mas vieja: se va al servicio y la copia solo se usa si este falla (staleIfError).
+     */
+    private Mono<Void> serveCached(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                                   String cacheKey, CachedResponse cached) {
+        Duration age = cached.age(System.currentTimeMillis());
+
+        if (age.compareTo(config.getTtl()) <= 0) {
+            logger.info("Cache HIT for key: {}", cacheKey);
+            cacheHitCounter.increment();
+            return createCachedResponse(exchange, cached, "HIT");
+        }
+
+        if (age.compareTo(config.getTtl().plus(config.getStaleWhileRevalidate())) <= 0) {
+            logger.info("Cache STALE for key: {} (age {}), revalidating", cacheKey, age);
+            cacheStaleCounter.increment();
+            refreshInBackground(exchange, config, cacheKey);
+            return createCachedResponse(exchange, cached, "STALE");
+        }
+
+        logger.info("Cache MISS for key: {} (expired)", cacheKey);
+        cacheMissCounter.increment();
+        CachedResponse fallback = age.compareTo(config.getTtl().plus(config.getStaleIfError())) <= 0 ? cached : null;
+        return forwardOrJoin(exchange, chain, config, cacheKey, fallback);
+    }
+
+    /**
+     * Single-flight: solo la primera peticion que falla para una clave va al servicio; las
+     * concurrentes se suscriben (sin bloquear) al resultado de esa llamada y reciben los mismos bytes.
+     */
+    private Mono<Void> forwardOrJoin(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                                     String cacheKey, CachedResponse stale) {
+        Sinks.One<CachedResponse> flight = Sinks.one();
+        Sinks.One<CachedResponse> inProgress = inFlight.putIfAbsent(cacheKey, flight);
 
-            ServerHttpResponseDecorator decoratedResponse = new ServerHttpResponseDecorator(originalResponse) {
-                @Override
-                public Mono<Void> writeWith(org.reactivestreams.Publisher<? extends DataBuffer> body) {
+        if (inProgress == null) {
+            return forwardAndCache(exchange, chain, config, cacheKey, flight, stale)
+                    .doFinally(signal -> completeFlight(cacheKey, flight, null));
+        }
+
+        logger.debug("Joining in-flight request for key: {}", cacheKey);
+        return inProgress.asMono()
+                .timeout(config.getCoalesceTimeout())
+                .onErrorResume(error -> Mono.empty())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(body -> {
+                    if (body.isPresent()) {
+                        cacheCoalescedCounter.increment();
+                        return createCachedResponse(exchange, body.get(), "COALESCED");
+                    }
+                    // La peticion lider no produjo un cuerpo cacheable: ir al servicio normalmente
+                    return forwardAndCache(exchange, chain, config, cacheKey, null, stale);
+                });
+    }
+
+    private Mono<Void> forwardAndCache(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                                       String cacheKey, Sinks.One<CachedResponse> flight, CachedResponse stale) {
+        // La generacion se lee antes de ir al servicio: si una invalidacion llega mientras tanto, la
+        // respuesta puede ser anterior a la escritura y store() la descarta
+        return tagIndex.generation()
+                .flatMap(generation -> forwardAndCache(exchange, chain, config, cacheKey, flight, stale, generation));
+    }
+
+    private Mono<Void> forwardAndCache(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                                       String cacheKey, Sinks.One<CachedResponse> flight, CachedResponse stale,
+                                       String generation) {
+        ServerHttpResponse originalResponse = exchange.getResponse();
+        DataBufferFactory bufferFactory = originalResponse.bufferFactory();
+
+        ServerHttpResponseDecorator decoratedResponse = new ServerHttpResponseDecorator(originalResponse) {
+            @Override
+            public Mono<Void> writeWith(org.reactivestreams.Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = originalResponse.getStatusCode();
+
+                // 5xx del servicio o 503 del FallbackController (circuit breaker abierto): responder con la copia stale
+                if (stale != null && status != null && status.is5xxServerError()) {
+                    logger.warn("Upstream answered {} for key {}, serving stale copy", status, cacheKey);
+                    cacheStaleCounter.increment();
                     return Flux.from(body)
-                            .buffer()
-                            .flatMap(dataBuffers -> {
-                                DataBuffer combined = bufferFactory.join(dataBuffers);
-                                String responseBody = combined.toString(StandardCharsets.UTF_8);
-
-                                if (originalResponse.getStatusCode().is2xxSuccessful()) {
-                                    redisTemplate.opsForValue()
-                                            .set(cacheKey, responseBody, config.getTtl())
-                                            .doOnSuccess(result -> logger.debug("Cached response for key: {}", cacheKey))
-                                            .doOnError(error -> logger.error("Error caching response: ", error))
-                                            .subscribe();
-                                }
-
-                                originalResponse.getHeaders().add("X-Cache", "MISS");
-
-                                return Mono.just(combined);
-                            })
-                            .flatMap(dataBuffer -> super.writeWith(Mono.just(dataBuffer)))
-                            .then();
+                            .doOnNext(DataBufferUtils::release)
+                            .then(createCachedResponse(exchange, stale, "STALE"));
                 }
-            };
 
-            // Mutate the exchange to use the decorated response
-            org.springframework.web.server.ServerWebExchange mutatedExchange = exchange.mutate().response(decoratedResponse).build();
+                originalResponse.getHeaders().add("X-Cache", "MISS");
 
-            // Intentar obtener del cache
-            return redisTemplate.opsForValue().get(cacheKey)
-                    .cast(String.class)
-                    .flatMap(cachedResponse -> {
-                        logger.info("Cache HIT for key: {}", cacheKey);
-                        cacheHitCounter.increment();
-                        return createCachedResponse(mutatedExchange, cachedResponse); // Use mutatedExchange
-                    })
-                    .switchIfEmpty(
-                        // Cache MISS - continue with original request and cache response
-                        Mono.fromRunnable(() -> {
-                            logger.info("Cache MISS for key: {}", cacheKey);
-                            cacheMissCounter.increment();
-                        }).then(
-                            chain.filter(mutatedExchange) // Use mutatedExchange
-                        )
-                    );
+                // Cuerpos ya comprimidos por el servicio no se cachean: la entrada asume bytes sin codificar
+                if (status == null || !status.is2xxSuccessful()
+                        || originalResponse.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                    return super.writeWith(body);
+                }
+
+                // ETag del servicio (si envia uno) se deja pasar y se guarda con la entrada
+                String upstreamEtag = originalResponse.getHeaders().getETag();
+
+                // Tee: cada chunk se envia al cliente apenas llega y se copia al buffer de captura
+                long startNanos = System.nanoTime();
+                BodyCapture capture = new BodyCapture(bufferFactory, config.getMaxCacheableSize().toBytes());
+                AtomicBoolean firstChunk = new AtomicBoolean(true);
+
+                Flux<DataBuffer> tee = Flux.from(body)
+                        .cast(DataBuffer.class)
+                        .doOnNext(chunk -> {
+                            if (firstChunk.compareAndSet(true, false)) {
+                                missFirstByteTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                            }
+                            capture.append(chunk);
+                        })
+                        .doOnComplete(() -> {
+                            if (capture.isOverflowed()) {
+                                logger.info("Response for key {} exceeds {}, not caching", cacheKey, config.getMaxCacheableSize());
+                                cacheOversizeCounter.increment();
+                                return;
+                            }
+                            CachedResponse stored = store(exchange, cacheKey, config,
+                                    new CachedResponse(capture.drain(), upstreamEtag, System.currentTimeMillis()), generation);
+                            completeFlight(cacheKey, flight, stored);
+                        })
+                        .doFinally(signal -> capture.release());
+
+                return super.writeWith(tee);
+            }
         };
+
+        // Mutate the exchange to use the decorated response
+        return chain.filter(exchange.mutate().response(decoratedResponse).build())
+                .onErrorResume(error -> {
+                    if (stale == null || originalResponse.isCommitted()) {
+                        return Mono.error(error);
+                    }
+                    logger.warn("Upstream failed for key {}, serving stale copy: {}", cacheKey, error.getMessage());
+                    cacheStaleCounter.increment();
+                    return createCachedResponse(exchange, stale, "STALE");
+                });
+    }
+
+    /**
+     * Revalidacion en segundo plano: como mucho un refresco a la vez por clave.
+     */
+    private void refreshInBackground(ServerWebExchange exchange, Config config, String cacheKey) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || !refreshing.add(cacheKey)) {
+            return;
+        }
+        // Misma URI que recibiria el servicio: la de la ruta (lb://...) con el path ya sin prefijo
+        URI requestUri = exchange.getRequest().getURI();
+        URI upstreamUri = UriComponentsBuilder.fromUri(route.getUri())
+                .replacePath(requestUri.getRawPath())
+                .replaceQuery(requestUri.getRawQuery())
+                .build(true)
+                .toUri();
+
+        tagIndex.generation()
+                .flatMap(generation -> upstreamRefresher.fetch(upstreamUri, config.getMaxCacheableSize().toBytes())
+                        .doOnNext(response -> store(exchange, cacheKey, config, response, generation)))
+                .doOnError(error -> logger.warn("Background refresh failed for key {}: {}", cacheKey, error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .doFinally(signal -> refreshing.remove(cacheKey))
+                .subscribe();
     }
 
-    private boolean shouldCache(String path) {
-        // Definir qué rutas de productos cachear
-        return
-                path.matches(".*/api/products"); // GET /api/products/category/{category}
+    private CachedResponse store(ServerWebExchange exchange, String cacheKey, Config config, CachedResponse identity,
+                                 String generation) {
+        CachedResponse response = identity.getBody().length >= MIN_COMPRESSIBLE_SIZE
+                ? identity.encodedWith(config.getCompression())
+                : identity;
+        List<String> tags = exchange.getAttributeOrDefault(CACHE_TAGS_ATTR, List.of(CacheTagIndex.ALL_TAG));
+        tagIndex.store(cacheKey, response.encode(), tags, config.retention(), generation)
+                .doOnSuccess(stored -> {
+                    if (Boolean.TRUE.equals(stored)) {
+                        // L1 solo con lo que quedo en Redis: una respuesta descartada no se sirve desde memoria
+                        localCache.put(cacheKey, response, config.getL1Ttl());
+                        logger.debug("Cached response for key: {} with tags {}", cacheKey, tags);
+                    } else {
+                        logger.debug("Not caching key {}: invalidated while the response was in flight", cacheKey);
+                    }
+                })
+                .doOnError(error -> logger.error("Error caching response: ", error))
+                .subscribe();
+        return response;
     }
 
-    private String generateCacheKey(String uri) {
-        return CACHE_PREFIX + uri.replaceAll("[^a-zA-Z0-9]", "_");
+    private void completeFlight(String cacheKey, Sinks.One<CachedResponse> flight, CachedResponse body) {
+        if (flight == null) {
+            return;
+        }
+        inFlight.remove(cacheKey, flight);
+        if (body != null) {
+            flight.tryEmitValue(body);
+        } else {
+            flight.tryEmitEmpty();
+        }
     }
 
-    private Mono<Void> createCachedResponse(org.springframework.web.server.ServerWebExchange exchange, String cachedData) {
+    private URI originalRequestUri(ServerWebExchange exchange) {
+        Set<URI> originalUris = exchange.getAttributeOrDefault(GATEWAY_ORIGINAL_REQUEST_URL_ATTR, Collections.emptySet());
+        return originalUris.isEmpty() ? exchange.getRequest().getURI() : originalUris.iterator().next();
+    }
+
+    private Mono<Void> createCachedResponse(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
         ServerHttpResponse response = exchange.getResponse();
+        // Entrada comprimida: se envia tal cual si el cliente acepta el encoding, si no se descomprime
+        boolean encoded = cached.getCodec() != CacheCodec.IDENTITY
+                && acceptsEncoding(exchange, cached.getCodec().getContentEncoding());
+        // RFC 9110: un ETag fuerte distingue representaciones, y la comprimida es otra distinta de la identity
+        String etag = encoded ? etagForEncoding(cached.getEtag(), cached.getCodec().getContentEncoding()) : cached.getEtag();
+        response.getHeaders().setETag(etag);
+        response.getHeaders().set("X-Cache", cacheStatus);
+        if (cached.getCodec() != CacheCodec.IDENTITY) {
+            response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        // If-None-Match coincide con la variante que se serviria: 304 sin cuerpo, no se tocan los bytes cacheados
+        if (matchesIfNoneMatch(exchange, etag)) {
+            notModifiedCounter.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        byte[] cachedBody;
+        if (cached.getCodec() == CacheCodec.IDENTITY) {
+            cachedBody = cached.getBody();
+        } else if (encoded) {
+            cachedBody = cached.getBody();
+            response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, cached.getCodec().getContentEncoding());
+        } else {
+            decompressedCounter.increment();
+            cachedBody = cached.decodedBody();
+        }
         response.setStatusCode(HttpStatus.OK);
         response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        response.getHeaders().add("X-Cache", "HIT");
+        response.getHeaders().setContentLength(cachedBody.length);
 
-        DataBuffer buffer = response.bufferFactory().wrap(cachedData.getBytes(StandardCharsets.UTF_8));
+        DataBuffer buffer = response.bufferFactory().wrap(cachedBody);
         return response.writeWith(Mono.just(buffer));
     }
 
+    // Comparacion debil, como pide RFC 9110 para If-None-Match
+    private boolean matchesIfNoneMatch(ServerWebExchange exchange, String etag) {
+        String strongTag = stripWeakPrefix(etag);
+        for (String candidate : exchange.getRequest().getHeaders().getIfNoneMatch()) {
+            if ("*".equals(candidate) || stripWeakPrefix(candidate).equals(strongTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ETag de la variante codificada: {@code "abc"} -> {@code "abc-gzip"}, conservando el prefijo debil.
+     */
+    static String etagForEncoding(String etag, String encoding) {
+        int closingQuote = etag.lastIndexOf('"');
+        if (closingQuote <= 0) {
+            return etag + "-" + encoding;
+        }
+        return etag.substring(0, closingQuote) + "-" + encoding + etag.substring(closingQuote);
+    }
+
+    private boolean acceptsEncoding(ServerWebExchange exchange, String encoding) {
+        for (String header : exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String part : header.split(",")) {
+                String[] tokens = part.split(";");
+                String name = tokens[0].trim();
+                if (!name.equalsIgnoreCase(encoding) && !"*".equals(name)) {
+                    continue;
+                }
+                // q=0 significa "no aceptable"
+                boolean rejected = tokens.length > 1 && ZERO_QUALITY.matcher(tokens[1].trim()).matches();
+                return !rejected;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
     @Override
     public List<String> shortcutFieldOrder() {
-        return Collections.singletonList("ttl");
+        return Arrays.asList("ttl", "l1Ttl", "maxCacheableSize");
     }
 
     public static class Config {
         private Duration ttl = DEFAULT_TTL;
+        private Duration l1Ttl = DEFAULT_L1_TTL;
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        private Duration staleIfError = Duration.ZERO;
+        private DataSize maxCacheableSize = DEFAULT_MAX_CACHEABLE_SIZE;
+        private Duration coalesceTimeout = DEFAULT_COALESCE_TIMEOUT;
+        private CacheCodec compression = CacheCodec.IDENTITY;
+        private List<String> cacheablePaths = List.of("/api/products");
+        private List<String> varyHeaders = List.of();
+        private List<String> ignoredQueryParams = List.of();
 
         public Duration getTtl() {
             return ttl;
@@ -161,5 +479,82 @@ public class ProductsCacheGatewayFilter extends AbstractGatewayFilterFactory<Pro
         public void setTtl(Duration ttl) {
             this.ttl = ttl;
         }
+
+        public Duration getL1Ttl() {
+            return l1Ttl;
+        }
+
+        public void setL1Ttl(Duration l1Ttl) {
+            this.l1Ttl = l1Ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public Duration getStaleIfError() {
+            return staleIfError;
+        }
+
+        public void setStaleIfError(Duration staleIfError) {
+            this.staleIfError = staleIfError;
+        }
+
+        public DataSize getMaxCacheableSize() {
+            return maxCacheableSize;
+        }
+
+        public void setMaxCacheableSize(DataSize maxCacheableSize) {
+            this.maxCacheableSize = maxCacheableSize;
+        }
+
+        public Duration getCoalesceTimeout() {
+            return coalesceTimeout;
+        }
+
+        public void setCoalesceTimeout(Duration coalesceTimeout) {
+            this.coalesceTimeout = coalesceTimeout;
+        }
+
+        public CacheCodec getCompression() {
+            return compression;
+        }
+
+        public void setCompression(CacheCodec compression) {
+            this.compression = compression;
+        }
+
+        public List<String> getCacheablePaths() {
+            return cacheablePaths;
+        }
+
+        public void setCacheablePaths(List<String> cacheablePaths) {
+            this.cacheablePaths = cacheablePaths;
+        }
+
+        public List<String> getVaryHeaders() {
+            return varyHeaders;
+        }
+
+        public void setVaryHeaders(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+        }
+
+        public List<String> getIgnoredQueryParams() {
+            return ignoredQueryParams;
+        }
+
+        public void setIgnoredQueryParams(List<String> ignoredQueryParams) {
+            this.ignoredQueryParams = ignoredQueryParams;
+        }
+
+        // Tiempo de vida en Redis: ttl (soft) mas la mayor de las ventanas stale
+        Duration retention() {
+            return ttl.plus(staleWhileRevalidate.compareTo(staleIfError) >= 0 ? staleWhileRevalidate : staleIfError);
+        }
     }
 }
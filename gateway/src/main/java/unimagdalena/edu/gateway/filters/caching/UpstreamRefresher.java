@@ -0,0 +1,49 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Vuelve a pedir al servicio una respuesta cacheada fuera del ciclo de la peticion del cliente
+ * (revalidacion en segundo plano). Usa el balanceador para resolver URIs lb://.
+ */
+@Component
+public class UpstreamRefresher {
+
+    private final WebClient webClient;
+
+    public UpstreamRefresher(WebClient.Builder webClientBuilder,
+                             ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        this.webClient = webClientBuilder.filter(loadBalancerFunction).build();
+    }
+
+    /**
+     * Emite la respuesta (cuerpo y ETag) si es 2xx y no supera {@code maxBytes}; vacio en otro caso.
+     */
+    public Mono<CachedResponse> fetch(URI uri, long maxBytes) {
+        return webClient.get()
+                .uri(uri)
+                .exchangeToMono(response -> {
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody().then(Mono.empty());
+                    }
+                    String etag = response.headers().asHttpHeaders().getETag();
+                    BodyCapture capture = new BodyCapture(DefaultDataBufferFactory.sharedInstance, maxBytes);
+                    return response.bodyToFlux(DataBuffer.class)
+                            .doOnNext(chunk -> {
+                                capture.append(chunk);
+                                DataBufferUtils.release(chunk);
+                            })
+                            .then(Mono.fromCallable(capture::drain))
+                            .map(body -> new CachedResponse(body, etag, System.currentTimeMillis()))
+                            .doFinally(signal -> capture.release());
+                });
+    }
+}
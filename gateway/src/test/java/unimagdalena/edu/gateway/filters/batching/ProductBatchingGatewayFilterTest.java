@@ -0,0 +1,156 @@
+package unimagdalena.edu.gateway.filters.batching;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBatchingGatewayFilterTest {
+
+    private static final String LAPTOP_ID = "550e8400-e29b-41d4-a716-446655440002";
+    private static final String MISSING_ID = "550e8400-e29b-41d4-a716-446655440099";
+    private static final String LAPTOP = "{\"id\":\"" + LAPTOP_ID + "\",\"name\":\"Laptop\"}";
+
+    @Mock
+    private ProductBatchClient batchClient;
+
+    @Mock
+    private GatewayFilterChain chain;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        ProductBatchingGatewayFilter.Config config = new ProductBatchingGatewayFilter.Config();
+        config.setWindow(Duration.ofMillis(50));
+        filter = new ProductBatchingGatewayFilter(batchClient,
+                new ReactiveResilience4JCircuitBreakerFactory(circuitBreakerRegistry, TimeLimiterRegistry.ofDefaults()),
+                meterRegistry).apply(config);
+    }
+
+    @Test
+    void filter_WithConcurrentGets_ShouldResolveThemWithOneBatchCall() {
+        // Arrange
+        when(batchClient.fetch(any(URI.class), anyCollection()))
+                .thenReturn(Mono.just(Map.of(LAPTOP_ID, LAPTOP.getBytes(StandardCharsets.UTF_8))));
+        MockServerWebExchange first = exchange(LAPTOP_ID);
+        MockServerWebExchange second = exchange(LAPTOP_ID);
+        MockServerWebExchange missing = exchange(MISSING_ID);
+
+        // Act
+        Mono.when(filter.filter(first, chain), filter.filter(second, chain), filter.filter(missing, chain))
+                .block(Duration.ofSeconds(5));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(batchClient, times(1)).fetch(eq(URI.create("lb://product-service/batch")), ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(LAPTOP_ID, MISSING_ID);
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(LAPTOP);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(LAPTOP);
+        assertThat(missing.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(meterRegistry.get("gateway_batch_size").summary().max()).isEqualTo(2);
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void filter_WhenBatchCallFails_ShouldForwardRequestIndividually() {
+        // Arrange
+        when(batchClient.fetch(any(URI.class), anyCollection())).thenReturn(Mono.error(new IllegalStateException("down")));
+        when(chain.filter(any())).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = exchange(LAPTOP_ID);
+
+        // Act
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        // Assert
+        verify(chain).filter(exchange);
+        assertThat(meterRegistry.get("gateway_batch_fallbacks").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void filter_WhenProductCircuitIsOpen_ShouldNotCallBatchAndForwardRequest() {
+        // Arrange
+        circuitBreakerRegistry.circuitBreaker("productServiceCircuitBreaker").transitionToOpenState();
+        when(batchClient.fetch(any(URI.class), anyCollection())).thenReturn(Mono.never());
+        when(chain.filter(any())).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = exchange(LAPTOP_ID);
+
+        // Act
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        // Assert
+        verify(chain).filter(exchange);
+        assertThat(meterRegistry.get("gateway_batch_fallbacks").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void filter_WithManyConcurrentGets_ShouldAnswerAllOfThem() {
+        // Arrange
+        when(batchClient.fetch(any(URI.class), anyCollection()))
+                .thenReturn(Mono.just(Map.of(LAPTOP_ID, LAPTOP.getBytes(StandardCharsets.UTF_8))));
+        List<MockServerWebExchange> exchanges = IntStream.range(0, 200).mapToObj(i -> exchange(LAPTOP_ID)).toList();
+
+        // Act: se encolan desde varios hilos a la vez
+        Flux.fromIterable(exchanges)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(exchange -> filter.filter(exchange, chain))
+                .sequential()
+                .blockLast(Duration.ofSeconds(5));
+
+        // Assert
+        exchanges.forEach(exchange -> assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK));
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void filter_WithNonIdPath_ShouldNotBatch() {
+        // Arrange
+        when(chain.filter(any())).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/export").build());
+
+        // Act
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        // Assert
+        verify(chain).filter(exchange);
+        verifyNoInteractions(batchClient);
+    }
+
+    private static MockServerWebExchange exchange(String id) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/" + id).build());
+    }
+}
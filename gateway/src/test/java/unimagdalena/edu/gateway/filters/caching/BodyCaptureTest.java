@@ -0,0 +1,45 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BodyCaptureTest {
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    @Test
+    void append_ShouldMirrorChunksWithoutConsumingThem() {
+        // Arrange
+        BodyCapture capture = new BodyCapture(bufferFactory, 1024);
+        DataBuffer first = bufferFactory.wrap("[{\"id\":1},".getBytes(StandardCharsets.UTF_8));
+        DataBuffer second = bufferFactory.wrap("{\"id\":2}]".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        capture.append(first);
+        capture.append(second);
+
+        // Assert
+        assertThat(first.readableByteCount()).isEqualTo(10);
+        assertThat(second.readableByteCount()).isEqualTo(9);
+        assertThat(new String(capture.drain(), StandardCharsets.UTF_8)).isEqualTo("[{\"id\":1},{\"id\":2}]");
+    }
+
+    @Test
+    void append_WhenMaxSizeExceeded_ShouldSkipCapture() {
+        // Arrange
+        BodyCapture capture = new BodyCapture(bufferFactory, 8);
+
+        // Act
+        capture.append(bufferFactory.wrap("12345".getBytes(StandardCharsets.UTF_8)));
+        capture.append(bufferFactory.wrap("67890".getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertThat(capture.isOverflowed()).isTrue();
+        assertThat(capture.drain()).isNull();
+    }
+}
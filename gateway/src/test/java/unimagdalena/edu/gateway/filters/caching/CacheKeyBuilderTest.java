@@ -0,0 +1,77 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheKeyBuilderTest {
+
+    private final CacheKeyBuilder keyBuilder = new CacheKeyBuilder("products:cache:",
+            List.of("/api/products", "/api/products/category/{category}"),
+            List.of("Accept-Language"),
+            List.of("utm_source"));
+
+    @Test
+    void isCacheable_ShouldMatchConfiguredPatternsOnly() {
+        assertThat(keyBuilder.isCacheable(URI.create("http://gw/api/products"))).isTrue();
+        assertThat(keyBuilder.isCacheable(URI.create("http://gw/api/products/category/books"))).isTrue();
+        assertThat(keyBuilder.isCacheable(URI.create("http://gw/api/products/123"))).isFalse();
+        assertThat(keyBuilder.isCacheable(URI.create("http://gw/api/orders"))).isFalse();
+    }
+
+    @Test
+    void build_ShouldIgnoreQueryParameterOrderAndExcludedParameters() {
+        // Act
+        String first = keyBuilder.build(URI.create("http://gw/api/products?b=2&a=1"), new HttpHeaders());
+        String second = keyBuilder.build(URI.create("http://other:4040/api/products?a=1&utm_source=x&b=2"), new HttpHeaders());
+
+        // Assert
+        assertThat(first).isEqualTo(second);
+        assertThat(first).isEqualTo("products:cache:/api/products?a=1&b=2;accept-language");
+    }
+
+    @Test
+    void build_WithValuesThatOnlyDifferInPunctuation_ShouldNotCollide() {
+        // Act
+        String dash = keyBuilder.build(URI.create("http://gw/api/products/category/a-b"), new HttpHeaders());
+        String underscore = keyBuilder.build(URI.create("http://gw/api/products/category/a_b"), new HttpHeaders());
+        String separatorInPath = keyBuilder.build(URI.create("http://gw/api/products/category/x_q_y%3D1"), new HttpHeaders());
+        String realQuery = keyBuilder.build(URI.create("http://gw/api/products/category/x?y=1"), new HttpHeaders());
+        String wildcard = keyBuilder.build(URI.create("http://gw/api/products/category/*"), new HttpHeaders());
+
+        // Assert
+        assertThat(dash).isNotEqualTo(underscore);
+        assertThat(separatorInPath).isNotEqualTo(realQuery);
+        assertThat(wildcard).doesNotContain("*");
+    }
+
+    @Test
+    void build_ShouldVaryOnConfiguredHeaders() {
+        // Arrange
+        HttpHeaders spanish = new HttpHeaders();
+        spanish.set(HttpHeaders.ACCEPT_LANGUAGE, "es");
+        HttpHeaders english = new HttpHeaders();
+        english.set(HttpHeaders.ACCEPT_LANGUAGE, "en");
+        english.set(HttpHeaders.USER_AGENT, "curl");
+
+        // Act
+        String spanishKey = keyBuilder.build(URI.create("http://gw/api/products"), spanish);
+        String englishKey = keyBuilder.build(URI.create("http://gw/api/products"), english);
+
+        // Assert
+        assertThat(spanishKey).isNotEqualTo(englishKey);
+        assertThat(englishKey).doesNotContain("curl");
+    }
+
+    @Test
+    void tags_ShouldIncludeAllAndPathVariables() {
+        assertThat(keyBuilder.tags(URI.create("http://gw/api/products")))
+                .containsExactly(CacheTagIndex.ALL_TAG, CacheTagIndex.LIST_TAG);
+        assertThat(keyBuilder.tags(URI.create("http://gw/api/products/category/Home%20Goods")))
+                .containsExactly(CacheTagIndex.ALL_TAG, "category:Home Goods");
+    }
+}
@@ -0,0 +1,55 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveSetOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheTagIndexTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private ReactiveSetOperations<String, byte[]> setOperations;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void prune_ShouldCheckScannedMembersAgainstTheSetInOneScript() {
+        // Arrange
+        CacheTagIndex tagIndex = new CacheTagIndex(redisTemplate, Duration.ofMinutes(5));
+        String setKey = CacheTagIndex.TAG_PREFIX + CacheTagIndex.ALL_TAG;
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.scan(eq(setKey), any(ScanOptions.class))).thenReturn(Flux.just(
+                "products:cache:/api/products".getBytes(StandardCharsets.UTF_8),
+                "products:cache:/api/products/category/books".getBytes(StandardCharsets.UTF_8)));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.just(1L));
+
+        // Act
+        Long removed = tagIndex.prune(CacheTagIndex.ALL_TAG).block();
+
+        // Assert
+        assertThat(removed).isEqualTo(1L);
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), keys.capture(), anyList());
+        assertThat(keys.getValue()).containsExactly(setKey,
+                "products:cache:/api/products", "products:cache:/api/products/category/books");
+    }
+}
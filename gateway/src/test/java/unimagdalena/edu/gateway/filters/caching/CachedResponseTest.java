@@ -0,0 +1,37 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedResponseTest {
+
+    private static final byte[] BODY = "[{\"id\":\"1\",\"name\":\"Laptop\"}]".repeat(20).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void encode_ThenDecode_ShouldKeepBodyEtagAndTimestamp() {
+        // Arrange
+        CachedResponse response = new CachedResponse(BODY, "\"v1\"", 1234L).encodedWith(CacheCodec.DEFLATE);
+
+        // Act
+        CachedResponse decoded = CachedResponse.decode(response.encode());
+
+        // Assert
+        assertThat(decoded.getCodec()).isEqualTo(CacheCodec.DEFLATE);
+        assertThat(decoded.getBody().length).isLessThan(BODY.length);
+        assertThat(decoded.decodedBody()).isEqualTo(BODY);
+        assertThat(decoded.getEtag()).isEqualTo("\"v1\"");
+        assertThat(decoded.getStoredAtMillis()).isEqualTo(1234L);
+    }
+
+    @Test
+    void decode_WithLegacyTextValue_ShouldReturnNull() {
+        // Arrange
+        byte[] legacy = "1234|\"v1\"|[]".getBytes(StandardCharsets.UTF_8);
+
+        // Act & Assert
+        assertThat(CachedResponse.decode(legacy)).isNull();
+    }
+}
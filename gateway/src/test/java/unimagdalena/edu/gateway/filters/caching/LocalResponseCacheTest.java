@@ -0,0 +1,81 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void put_WhenMaxEntriesExceeded_ShouldEvictAndKeepFrequentlyUsed() {
+        // Arrange
+        LocalResponseCache cache = new LocalResponseCache(2, DataSize.ofKilobytes(1), meterRegistry);
+        cache.put("a", response(1), Duration.ofMinutes(1));
+        cache.put("b", response(2), Duration.ofMinutes(1));
+        cache.get("a");
+        cache.get("a");
+
+        // Act
+        cache.put("c", response(3), Duration.ofMinutes(1));
+
+        // Assert: Caffeine desaloja por frecuencia (TinyLFU), no por orden de acceso
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a").getBody()).containsExactly(1);
+        assertThat(meterRegistry.get("gateway_l1_cache_evictions").tag("reason", "size").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void put_WhenMaxBytesExceeded_ShouldEvictUntilUnderLimit() {
+        // Arrange
+        LocalResponseCache cache = new LocalResponseCache(100, DataSize.ofBytes(10), meterRegistry);
+        cache.put("a", response(new byte[6]), Duration.ofMinutes(1));
+
+        // Act
+        cache.put("b", response(new byte[6]), Duration.ofMinutes(1));
+
+        // Assert
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.bytes()).isEqualTo(6);
+    }
+
+    @Test
+    void get_WhenExpired_ShouldReturnNull() {
+        // Arrange
+        LocalResponseCache cache = new LocalResponseCache(10, DataSize.ofKilobytes(1), meterRegistry);
+        cache.put("a", response(1), Duration.ofNanos(1));
+
+        // Act & Assert
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get("gateway_l1_cache_evictions").tag("reason", "expired").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_ShouldRemoveMatchingKeys() {
+        // Arrange
+        LocalResponseCache cache = new LocalResponseCache(10, DataSize.ofKilobytes(1), meterRegistry);
+        cache.put("products:cache:http___gw_api_products", response(1), Duration.ofMinutes(1));
+        cache.put("products:cache:http___gw_api_orders", response(2), Duration.ofMinutes(1));
+
+        // Act
+        int removed = cache.invalidate("products:cache:*api_products*");
+
+        // Assert
+        assertThat(removed).isEqualTo(1);
+        assertThat(cache.get("products:cache:http___gw_api_orders").getBody()).containsExactly(2);
+    }
+
+    private static CachedResponse response(int value) {
+        return response(new byte[]{(byte) value});
+    }
+
+    private static CachedResponse response(byte[] body) {
+        return new CachedResponse(body, System.currentTimeMillis());
+    }
+}
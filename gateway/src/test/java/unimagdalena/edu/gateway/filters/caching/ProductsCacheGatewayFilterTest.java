@@ -0,0 +1,334 @@
+package unimagdalena.edu.gateway.filters.caching;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductsCacheGatewayFilterTest {
+
+    private static final String BODY = "[{\"id\":\"1\",\"name\":\"Laptop\"}]";
+
+    @Mock
+    private ReactiveRedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, byte[]> valueOperations;
+
+    @Mock
+    private UpstreamRefresher upstreamRefresher;
+
+    @Mock
+    private CacheTagIndex tagIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayFilter filter;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        LocalResponseCache localCache = new LocalResponseCache(100, DataSize.ofMegabytes(1), meterRegistry);
+        ProductsCacheGatewayFilter factory = new ProductsCacheGatewayFilter(
+                redisTemplate, new ObjectMapper(), localCache, upstreamRefresher, tagIndex, meterRegistry);
+
+        ProductsCacheGatewayFilter.Config config = new ProductsCacheGatewayFilter.Config();
+        config.setTtl(Duration.ofMinutes(2));
+        config.setStaleWhileRevalidate(Duration.ofMinutes(1));
+        config.setStaleIfError(Duration.ofMinutes(30));
+        filter = factory.apply(config);
+
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.get(anyString())).thenReturn(Mono.empty());
+        lenient().when(tagIndex.generation()).thenReturn(Mono.just("7"));
+        lenient().when(tagIndex.store(anyString(), any(byte[].class), anyList(), any(Duration.class), anyString()))
+                .thenReturn(Mono.just(true));
+    }
+
+    @Test
+    void filter_OnMiss_ShouldStreamBodyAndStoreItInRedis() {
+        // Arrange
+        MockServerWebExchange exchange = productsExchange();
+
+        // Act
+        filter.filter(exchange, upstream(Mono.empty())).block();
+
+        // Assert
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        verify(tagIndex).store(anyString(), argThat(value -> storedBody(value).equals(BODY)),
+                eq(List.of(CacheTagIndex.ALL_TAG, CacheTagIndex.LIST_TAG)), eq(Duration.ofMinutes(32)), eq("7"));
+    }
+
+    @Test
+    void filter_WhenInvalidatedDuringMiss_ShouldNotKeepResponseInLocalCache() {
+        // Arrange: la generacion cambio mientras se pedia la respuesta, el script no la guarda
+        when(tagIndex.store(anyString(), any(byte[].class), anyList(), any(Duration.class), anyString()))
+                .thenReturn(Mono.just(false));
+        filter.filter(productsExchange(), upstream(Mono.empty())).block();
+        MockServerWebExchange exchange = productsExchange();
+
+        // Act
+        filter.filter(exchange, upstream(Mono.empty())).block();
+
+        // Assert
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void filter_AfterMiss_ShouldServeFromLocalCacheWithoutRedis() {
+        // Arrange
+        filter.filter(productsExchange(), upstream(Mono.empty())).block();
+        MockServerWebExchange exchange = productsExchange();
+
+        // Act
+        filter.filter(exchange, upstream(Mono.empty())).block();
+
+        // Assert
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(upstreamCalls).hasValue(1);
+        verify(valueOperations, times(1)).get(anyString());
+    }
+
+    @Test
+    void filter_WithConcurrentMisses_ShouldCallUpstreamOnce() {
+        // Arrange
+        Sinks.Empty<Void> upstreamGate = Sinks.empty();
+        GatewayFilterChain chain = upstream(upstreamGate.asMono());
+        MockServerWebExchange leader = productsExchange();
+        MockServerWebExchange follower = productsExchange();
+
+        // Act
+        Mono<Void> leaderResult = filter.filter(leader, chain).cache();
+        Mono<Void> followerResult = filter.filter(follower, chain).cache();
+        leaderResult.subscribe();
+        followerResult.subscribe();
+        upstreamGate.tryEmitEmpty();
+        leaderResult.block(Duration.ofSeconds(5));
+        followerResult.block(Duration.ofSeconds(5));
+
+        // Assert
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(follower.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("COALESCED");
+        assertThat(meterRegistry.get("gateway_cache_coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void filter_WithinStaleWhileRevalidate_ShouldServeStaleAndRefreshOnce() {
+        // Arrange
+        givenRedisEntry("[]", Duration.ofMinutes(2).plusSeconds(30));
+        when(upstreamRefresher.fetch(any(URI.class), anyLong()))
+                .thenReturn(Mono.just(new CachedResponse(BODY.getBytes(StandardCharsets.UTF_8), System.currentTimeMillis())));
+        MockServerWebExchange exchange = productsExchange();
+
+        // Act
+        filter.filter(exchange, upstream(Mono.empty())).block();
+
+        // Assert
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("[]");
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("STALE");
+        assertThat(upstreamCalls).hasValue(0);
+        verify(upstreamRefresher).fetch(eq(URI.create("lb://product-service/api/products")), anyLong());
+        verify(tagIndex).store(anyString(), argThat(value -> storedBody(value).equals(BODY)), anyList(), any(Duration.class), eq("7"));
+    }
+
+    @Test
+    void filter_WhenUpstreamFailsAfterExpiry_ShouldServeStaleIfError() {
+        // Arrange
+        givenRedisEntry("[]", Duration.ofMinutes(10));
+        MockServerWebExchange exchange = productsExchange();
+
+        // Act
+        filter.filter(exchange, upstream(Mono.empty(), HttpStatus.SERVICE_UNAVAILABLE)).block();
+
+        // Assert
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("[]");
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("STALE");
+        assertThat(upstreamCalls).hasValue(1);
+        verify(upstreamRefresher, never()).fetch(any(URI.class), anyLong());
+    }
+
+    @Test
+    void filter_WithMatchingIfNoneMatch_ShouldAnswerNotModifiedFromCache() {
+        // Arrange
+        filter.filter(productsExchange(), upstream(Mono.empty())).block();
+        String etag = new CachedResponse(BODY.getBytes(StandardCharsets.UTF_8), 0).getEtag();
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/products").ifNoneMatch("W/" + etag).build());
+
+        // Act
+        filter.filter(exchange, upstream(Mono.empty())).block();
+
+        // Assert
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo(etag);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEmpty();
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(meterRegistry.get("gateway_cache_not_modified").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void filter_OnMissWithUpstreamEtag_ShouldPassItThroughAndReuseItOnHits() {
+        // Arrange
+        MockServerWebExchange miss = productsExchange();
+        GatewayFilterChain chain = exchange -> {
+            exchange.getResponse().getHeaders().setETag("\"v1\"");
+            return upstream(Mono.empty()).filter(exchange);
+        };
+        MockServerWebExchange hit = productsExchange();
+
+        // Act
+        filter.filter(miss, chain).block();
+        filter.filter(hit, chain).block();
+
+        // Assert
+        assertThat(miss.getResponse().getHeaders().getETag()).isEqualTo("\"v1\"");
+        assertThat(hit.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(hit.getResponse().getHeaders().getETag()).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    void filter_WithCompression_ShouldServeStoredBytesOnlyToClientsAcceptingTheEncoding() {
+        // Arrange
+        ProductsCacheGatewayFilter.Config config = new ProductsCacheGatewayFilter.Config();
+        config.setCompression(CacheCodec.GZIP);
+        GatewayFilter compressing = new ProductsCacheGatewayFilter(redisTemplate, new ObjectMapper(),
+                new LocalResponseCache(100, DataSize.ofMegabytes(1), meterRegistry), upstreamRefresher, tagIndex, meterRegistry)
+                .apply(config);
+        String largeBody = "[" + "{\"id\":\"1\",\"name\":\"Laptop\"},".repeat(50) + "{}]";
+        GatewayFilterChain chain = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().writeWith(Mono.just(
+                    exchange.getResponse().bufferFactory().wrap(largeBody.getBytes(StandardCharsets.UTF_8))));
+        };
+        compressing.filter(productsExchange(), chain).block();
+        MockServerWebExchange gzipClient = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/products").header("Accept-Encoding", "br, gzip"));
+        MockServerWebExchange plainClient = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/products").header("Accept-Encoding", "gzip;q=0"));
+
+        // Act
+        compressing.filter(gzipClient, chain).block();
+        compressing.filter(plainClient, chain).block();
+
+        // Assert
+        verify(tagIndex).store(anyString(), argThat(value -> CachedResponse.decode(value).getCodec() == CacheCodec.GZIP),
+                anyList(), any(Duration.class), anyString());
+        assertThat(gzipClient.getResponse().getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        byte[] compressed = gzipClient.getResponse().getBody()
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    return bytes;
+                })
+                .blockFirst();
+        assertThat(new String(CacheCodec.GZIP.decode(compressed), StandardCharsets.UTF_8)).isEqualTo(largeBody);
+        assertThat(plainClient.getResponse().getHeaders().getFirst("Content-Encoding")).isNull();
+        assertThat(plainClient.getResponse().getBodyAsString().block()).isEqualTo(largeBody);
+        String gzipEtag = gzipClient.getResponse().getHeaders().getETag();
+        String plainEtag = plainClient.getResponse().getHeaders().getETag();
+        assertThat(gzipEtag).isEqualTo(ProductsCacheGatewayFilter.etagForEncoding(plainEtag, "gzip"));
+        assertThat(gzipEtag).isNotEqualTo(plainEtag);
+    }
+
+    @Test
+    void filter_WithIfNoneMatchOfAnotherEncoding_ShouldNotAnswerNotModified() {
+        // Arrange
+        ProductsCacheGatewayFilter.Config config = new ProductsCacheGatewayFilter.Config();
+        config.setCompression(CacheCodec.GZIP);
+        GatewayFilter compressing = new ProductsCacheGatewayFilter(redisTemplate, new ObjectMapper(),
+                new LocalResponseCache(100, DataSize.ofMegabytes(1), meterRegistry), upstreamRefresher, tagIndex, meterRegistry)
+                .apply(config);
+        String largeBody = "[" + "{\"id\":\"1\",\"name\":\"Laptop\"},".repeat(50) + "{}]";
+        GatewayFilterChain chain = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setETag("\"v1\"");
+            return exchange.getResponse().writeWith(Mono.just(
+                    exchange.getResponse().bufferFactory().wrap(largeBody.getBytes(StandardCharsets.UTF_8))));
+        };
+        compressing.filter(productsExchange(), chain).block();
+        MockServerWebExchange identityTag = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products")
+                .header("Accept-Encoding", "gzip").ifNoneMatch("\"v1\""));
+        MockServerWebExchange gzipTag = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products")
+                .header("Accept-Encoding", "gzip").ifNoneMatch("\"v1-gzip\""));
+
+        // Act
+        compressing.filter(identityTag, chain).block();
+        compressing.filter(gzipTag, chain).block();
+
+        // Assert
+        assertThat(identityTag.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(identityTag.getResponse().getHeaders().getETag()).isEqualTo("\"v1-gzip\"");
+        assertThat(gzipTag.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    private static String storedBody(byte[] value) {
+        return new String(CachedResponse.decode(value).decodedBody(), StandardCharsets.UTF_8);
+    }
+
+    private void givenRedisEntry(String body, Duration age) {
+        CachedResponse cached = new CachedResponse(body.getBytes(StandardCharsets.UTF_8),
+                System.currentTimeMillis() - age.toMillis());
+        when(valueOperations.get(anyString())).thenReturn(Mono.just(cached.encode()));
+    }
+
+    private MockServerWebExchange productsExchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products").build());
+        Route route = Route.async()
+                .id("product-service")
+                .uri(URI.create("lb://product-service"))
+                .predicate(serverWebExchange -> true)
+                .build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private GatewayFilterChain upstream(Mono<Void> delay) {
+        return upstream(delay, HttpStatus.OK);
+    }
+
+    private GatewayFilterChain upstream(Mono<Void> delay, HttpStatus status) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return delay.then(Mono.defer(() -> {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(status);
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+            }));
+        };
+    }
+}
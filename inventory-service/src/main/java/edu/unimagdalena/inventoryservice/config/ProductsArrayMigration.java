@@ -0,0 +1,45 @@
+package edu.unimagdalena.inventoryservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Migra Inventory.products de la antigua tabla de coleccion (inventory_products) a la columna uuid[] de
+ * inventory. Se ejecuta al arrancar, despues de que Hibernate (ddl-auto=update) cree la columna, y no
+ * hace nada si la tabla ya no existe.
+ */
+@Component
+public class ProductsArrayMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductsArrayMigration.class);
+    // Con varias replicas arrancando a la vez solo una migra; las demas esperan y ya no encuentran la tabla
+    private static final long MIGRATION_LOCK_ID = 20200002L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductsArrayMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + MIGRATION_LOCK_ID + ")");
+        Boolean pending = jdbcTemplate.queryForObject("SELECT to_regclass('inventory_products') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(pending)) {
+            return;
+        }
+        int migrated = jdbcTemplate.update("""
+                UPDATE inventory t SET products = s.products
+                FROM (SELECT inventory_id, array_agg(products) AS products FROM inventory_products GROUP BY inventory_id) s
+                WHERE t.id = s.inventory_id AND t.products IS NULL
+                """);
+        jdbcTemplate.execute("DROP TABLE inventory_products");
+        logger.info("Migrated products of {} inventory rows from inventory_products to inventory.products", migrated);
+    }
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.util.List;
 import java.util.UUID;
@@ -22,7 +24,9 @@ public class Inventory {
     private UUID id;
 
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Columna uuid[] en la misma fila, sin tabla de coleccion
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "uuid[]")
     private List<UUID> products;
 }
 
@@ -0,0 +1,38 @@
+package edu.unimagdalena.orderservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler donde se ejecutan las llamadas JPA/JDBC, fuera de los hilos del event loop de Netty.
+ * <ul>
+ *     <li>{@code bounded}: hilos propios, tantos como conexiones tiene Hikari. Mas hilos solo
+ *     esperarian una conexion; el exceso de peticiones espera en la cola del scheduler.</li>
+ *     <li>{@code elastic}: el boundedElastic compartido de Reactor. En Java 21 puede usar hilos
+ *     virtuales con {@code -Dreactor.schedulers.defaultBoundedElasticOnVirtualThreads=true}.</li>
+ * </ul>
+ */
+@Configuration
+public class JpaSchedulerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaSchedulerConfig.class);
+    // Tareas en espera por hilo antes de rechazar: absorbe picos sin crecer sin limite
+    private static final int QUEUED_TASKS_PER_THREAD = 1000;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jpaScheduler(@Value("${order.jpa.scheduler.mode:bounded}") String mode,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        if ("elastic".equals(mode)) {
+            logger.info("JPA calls run on the shared boundedElastic scheduler");
+            // dispose() sobre el scheduler compartido no tiene efecto
+            return Schedulers.boundedElastic();
+        }
+        logger.info("JPA calls run on a bounded scheduler with {} threads", poolSize);
+        return Schedulers.newBoundedElastic(poolSize, poolSize * QUEUED_TASKS_PER_THREAD, "jpa");
+    }
+}
@@ -0,0 +1,136 @@
+package edu.unimagdalena.orderservice.config;
+
+import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Formato binario de {@link Order} para {@link CacheConfig#ORDER_CACHE}: version, mascara de campos
+ * presentes, UUIDs como dos longs, la fecha como segundos + nanos (sin zona, igual que la columna) y el
+ * total como escala + valor sin escala, asi {@code 100.00} no vuelve como {@code 100.0} ni {@code 1E+2}.
+ */
+public class OrderCacheSerializer implements RedisSerializer<Order> {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HAS_ID = 1;
+    private static final int HAS_PRODUCTS = 1 << 1;
+    private static final int HAS_ORDER_DATE = 1 << 2;
+    private static final int HAS_STATUS = 1 << 3;
+    private static final int HAS_TOTAL_AMOUNT = 1 << 4;
+    private static final int HAS_PAYMENT_ID = 1 << 5;
+
+    @Override
+    public byte[] serialize(Order order) {
+        if (order == null) {
+            return null;
+        }
+        int productCount = order.getProducts() != null ? order.getProducts().size() : 0;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(96 + productCount * 16);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            int fields = (order.getId() != null ? HAS_ID : 0)
+                    | (order.getProducts() != null ? HAS_PRODUCTS : 0)
+                    | (order.getOrderDate() != null ? HAS_ORDER_DATE : 0)
+                    | (order.getStatus() != null ? HAS_STATUS : 0)
+                    | (order.getTotalAmount() != null ? HAS_TOTAL_AMOUNT : 0)
+                    | (order.getPaymentId() != null ? HAS_PAYMENT_ID : 0);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(fields);
+            if (order.getId() != null) {
+                writeUuid(out, order.getId());
+            }
+            if (order.getProducts() != null) {
+                out.writeInt(productCount);
+                for (UUID product : order.getProducts()) {
+                    writeUuid(out, product);
+                }
+            }
+            if (order.getOrderDate() != null) {
+                out.writeLong(order.getOrderDate().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(order.getOrderDate().getNano());
+            }
+            if (order.getStatus() != null) {
+                // Por nombre: reordenar el enum no corrompe las entradas existentes
+                out.writeUTF(order.getStatus().name());
+            }
+            if (order.getTotalAmount() != null) {
+                byte[] unscaled = order.getTotalAmount().unscaledValue().toByteArray();
+                out.writeInt(order.getTotalAmount().scale());
+                out.writeByte(unscaled.length);
+                out.write(unscaled);
+            }
+            if (order.getPaymentId() != null) {
+                writeUuid(out, order.getPaymentId());
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize order " + order.getId(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public Order deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                // Entrada de otra version: se trata como fallo de cache y se vuelve a leer de PostgreSQL
+                return null;
+            }
+            int fields = in.readByte();
+            Order order = new Order();
+            if ((fields & HAS_ID) != 0) {
+                order.setId(readUuid(in));
+            }
+            if ((fields & HAS_PRODUCTS) != 0) {
+                int count = in.readInt();
+                List<UUID> products = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    products.add(readUuid(in));
+                }
+                order.setProducts(products);
+            }
+            if ((fields & HAS_ORDER_DATE) != 0) {
+                order.setOrderDate(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+            }
+            if ((fields & HAS_STATUS) != 0) {
+                order.setStatus(OrderStatus.valueOf(in.readUTF()));
+            }
+            if ((fields & HAS_TOTAL_AMOUNT) != 0) {
+                int scale = in.readInt();
+                byte[] unscaled = new byte[in.readUnsignedByte()];
+                in.readFully(unscaled);
+                order.setTotalAmount(new BigDecimal(new BigInteger(unscaled), scale));
+            }
+            if ((fields & HAS_PAYMENT_ID) != 0) {
+                order.setPaymentId(readUuid(in));
+            }
+            return order;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SerializationException("Cannot deserialize cached order", e);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
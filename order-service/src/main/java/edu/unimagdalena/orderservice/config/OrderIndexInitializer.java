@@ -0,0 +1,90 @@
+package edu.unimagdalena.orderservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Indices del listado paginado de ordenes. CONCURRENTLY no bloquea escrituras mientras se crea el
+ * indice (importante con decenas de millones de filas) y no puede ir dentro de una transaccion.
+ */
+@Component
+public class OrderIndexInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIndexInitializer.class);
+    // Con varias replicas arrancando a la vez solo una construye; las demas no esperan a que termine
+    private static final long INDEX_LOCK_ID = 20200002L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // En segundo plano: construir el indice sobre una tabla grande no debe retrasar el readiness.
+        // Mientras tanto el listado funciona, solo que sin el indice
+        Mono.fromRunnable(this::ensureIndexes)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> logger.error("Could not ensure order listing indexes", e));
+    }
+
+    void ensureIndexes() {
+        // Lock de sesion y no de transaccion: todo en la misma conexion, que sigue en autocommit
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                if (!queryBoolean(statement, "SELECT pg_try_advisory_lock(" + INDEX_LOCK_ID + ")")) {
+                    logger.info("Order listing indexes are being built by another instance");
+                    return null;
+                }
+                try {
+                    // Filtro por estado + orden/rango por fecha; id desempata el keyset
+                    ensureIndex(statement, "idx_orders_status_date_id", "orders (status, order_date DESC, id DESC)");
+                    // Listado sin filtro de estado
+                    ensureIndex(statement, "idx_orders_date_id", "orders (order_date DESC, id DESC)");
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(" + INDEX_LOCK_ID + ")");
+                }
+            }
+            logger.info("Order listing indexes ensured");
+            return null;
+        });
+    }
+
+    private void ensureIndex(Statement statement, String name, String definition) throws SQLException {
+        // Un CREATE INDEX CONCURRENTLY interrumpido deja el indice INVALID: existe (IF NOT EXISTS lo salta)
+        // pero el planificador no lo usa. Se borra y se vuelve a construir
+        Boolean valid = null;
+        try (ResultSet rs = statement.executeQuery(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass('" + name + "')")) {
+            if (rs.next()) {
+                valid = rs.getBoolean(1);
+            }
+        }
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (valid != null) {
+            logger.warn("Index {} is invalid, rebuilding it", name);
+            statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+        statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON " + definition);
+    }
+
+    private static boolean queryBoolean(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package edu.unimagdalena.orderservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Migra Order.products de la antigua tabla de coleccion (order_products) a la columna uuid[] de
+ * orders. Se ejecuta al arrancar, despues de que Hibernate (ddl-auto=update) cree la columna, y no
+ * hace nada si la tabla ya no existe.
+ */
+@Component
+public class ProductsArrayMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductsArrayMigration.class);
+    // Con varias replicas arrancando a la vez solo una migra; las demas esperan y ya no encuentran la tabla
+    private static final long MIGRATION_LOCK_ID = 20200001L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductsArrayMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + MIGRATION_LOCK_ID + ")");
+        Boolean pending = jdbcTemplate.queryForObject("SELECT to_regclass('order_products') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(pending)) {
+            return;
+        }
+        int migrated = jdbcTemplate.update("""
+                UPDATE orders t SET products = s.products
+                FROM (SELECT order_id, array_agg(products) AS products FROM order_products GROUP BY order_id) s
+                WHERE t.id = s.order_id AND t.products IS NULL
+                """);
+        jdbcTemplate.execute("DROP TABLE order_products");
+        logger.info("Migrated products of {} order rows from order_products to orders.products", migrated);
+    }
+}
@@ -1,20 +1,32 @@
 package edu.unimagdalena.orderservice.controller;
 
 import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderPage;
 import edu.unimagdalena.orderservice.model.OrderStatus;
-import edu.unimagdalena.orderservice.service.OrderService;
+import edu.unimagdalena.orderservice.model.OrderStatusEvent;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
+import edu.unimagdalena.orderservice.repository.OrderStatusBulkRepository;
+import edu.unimagdalena.orderservice.service.InvalidStatusTransitionException;
+import edu.unimagdalena.orderservice.service.ReactiveOrderService;
+import edu.unimagdalena.orderservice.service.pagination.OrderCursor;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 @RefreshScope
 @RestController
@@ -23,7 +35,7 @@ public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
-    private final OrderService orderService;
+    private final ReactiveOrderService orderService;
 
 
     @GetMapping
@@ -31,49 +43,106 @@ public class OrderController {
 
         logger.info("Ingresando al metodo del controller ProductController::list");
 
-        return Flux.fromIterable(orderService.getAllOrders());
+        return orderService.getAllOrders();
+    }
+
+    /**
+     * Listado paginado por cursor (mas recientes primero), filtrable por estado y rango de fechas [from, to).
+     */
+    @GetMapping("/page")
+    public Mono<OrderPage> getOrderPage(@RequestParam(required = false) OrderStatus status,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > OrderCursor.MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + OrderCursor.MAX_PAGE_SIZE);
+        }
+        return orderService.getOrderPage(status, from, to, cursor, size)
+                .onErrorMap(IllegalArgumentException.class, error -> new ResponseStatusException(HttpStatus.BAD_REQUEST, error.getMessage()));
+    }
+
+    /**
+     * Exportacion para reportes: mismas ordenes y filtros que /page, escritas a medida que se leen.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Order> exportOrders(@RequestParam(required = false) OrderStatus status,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.info("Exportando ordenes status={} from={} to={}", status, from, to);
+        return orderService.streamOrders(status, from, to);
     }
 
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<Order>> getOrderById(@PathVariable UUID id) throws InterruptedException {
+    public Mono<ResponseEntity<Order>> getOrderById(@PathVariable UUID id) {
 
         logger.info("Obteniendo odrder con id {}", id);
         if (id.equals(UUID.fromString("550e8400-e29b-41d4-a716-446655440010"))){
             throw new IllegalStateException("El id del controller no se puede encontrar!!");
         }
+        Mono<Order> order = orderService.getOrderById(id);
         if (id.equals(UUID.fromString("550e8400-e29b-41d4-a716-44665544000"))){
-            TimeUnit.SECONDS.sleep(5L);
+            // Demora para abrir el circuit breaker sin dormir el hilo del event loop
+            order = order.delayElement(Duration.ofSeconds(5L));
         }
 
-        return Mono.justOrEmpty(orderService.getOrderById(id))
+        return order
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public Mono<ResponseEntity<Order>> createOrder(@RequestBody Order order) {
-        return Mono.just(orderService.createOrder(order))
+        return orderService.createOrder(order)
                 .map(savedOrder -> ResponseEntity.status(HttpStatus.CREATED).body(savedOrder));
     }
 
     @PutMapping("/{id}")
     public Mono<ResponseEntity<Order>> updateOrder(@PathVariable UUID id, @RequestBody Order order) {
-        return Mono.justOrEmpty(orderService.updateOrder(id, order))
+        return orderService.updateOrder(id, order)
                 .map(ResponseEntity::ok)
+                .onErrorMap(InvalidStatusTransitionException.class, error -> new ResponseStatusException(HttpStatus.CONFLICT, error.getMessage()))
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/{id}/status")
     public Mono<ResponseEntity<Order>> updateOrderStatus(@PathVariable UUID id, @RequestBody OrderStatus status) {
-        return Mono.justOrEmpty(orderService.updateOrderStatus(id, status))
+        return orderService.updateOrderStatus(id, status)
                 .map(ResponseEntity::ok)
+                .onErrorMap(InvalidStatusTransitionException.class, error -> new ResponseStatusException(HttpStatus.CONFLICT, error.getMessage()))
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Transiciones de estado masivas (conciliacion). Acepta un array JSON o NDJSON y lo aplica por lotes
+     * de un solo UPDATE condicional; devuelve un resultado por transicion, en el orden recibido.
+     */
+    @PostMapping(value = "/status/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<StatusTransitionResult> updateOrderStatuses(@RequestBody Flux<StatusTransition> transitions) {
+        return transitions
+                .buffer(OrderStatusBulkRepository.MAX_BATCH_SIZE)
+                .concatMap(orderService::updateOrderStatuses)
+                .onErrorMap(IllegalArgumentException.class, error -> new ResponseStatusException(HttpStatus.BAD_REQUEST, error.getMessage()));
+    }
+
+    /**
+     * Eventos de estado del outbox de payment-service. Reintentar el mismo lote es seguro: los eventos
+     * ya aplicados se ignoran por su eventId.
+     */
+    @PostMapping("/status/events")
+    public Mono<ResponseEntity<Void>> applyStatusEvents(@RequestBody List<OrderStatusEvent> events) {
+        return orderService.applyStatusEvents(events)
+                .doOnNext(updated -> logger.info("Recibidos {} eventos de estado, {} ordenes actualizadas", events.size(), updated))
+                .thenReturn(ResponseEntity.noContent().<Void>build())
+                .onErrorMap(IllegalArgumentException.class, error -> new ResponseStatusException(HttpStatus.BAD_REQUEST, error.getMessage()));
+    }
+
     @DeleteMapping("/{id}")
     public Mono<ResponseEntity<Void>> deleteOrder(@PathVariable UUID id) {
-        orderService.deleteOrder(id);
-        return Mono.just(ResponseEntity.noContent().build());
+        return orderService.deleteOrder(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
     }
 
 }
@@ -2,6 +2,8 @@ package edu.unimagdalena.orderservice.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -21,7 +23,9 @@ public class Order {
     @GeneratedValue
     private UUID id;
     
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Columna uuid[] en la misma fila: listar ordenes es una sola consulta y actualizar, un solo UPDATE
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "uuid[]")
     private List<UUID> products;
 
     private LocalDateTime orderDate;
@@ -0,0 +1,18 @@
+package edu.unimagdalena.orderservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPage {
+
+    private List<Order> items;
+
+    // null cuando no hay mas paginas
+    private String nextCursor;
+}
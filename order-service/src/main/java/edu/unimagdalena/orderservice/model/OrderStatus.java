@@ -1,10 +1,64 @@
 package edu.unimagdalena.orderservice.model;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maquina de estados de la orden: PENDING -> PROCESSING -> SHIPPED -> DELIVERED, y CANCELLED desde
+ * cualquier estado salvo el propio (un reembolso cancela tambien una orden entregada).
+ * Repetir el estado actual se acepta como no-op, para que los reintentos sean idempotentes.
+ */
 public enum OrderStatus {
     PENDING,
     PROCESSING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
-}
+    CANCELLED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> NEXT = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> PREVIOUS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        NEXT.put(PENDING, EnumSet.of(PROCESSING, CANCELLED));
+        NEXT.put(PROCESSING, EnumSet.of(SHIPPED, CANCELLED));
+        NEXT.put(SHIPPED, EnumSet.of(DELIVERED, CANCELLED));
+        NEXT.put(DELIVERED, EnumSet.of(CANCELLED));
+        NEXT.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+        for (OrderStatus status : values()) {
+            PREVIOUS.put(status, Collections.unmodifiableSet(EnumSet.copyOf(
+                    NEXT.entrySet().stream()
+                            .filter(entry -> entry.getKey() == status || entry.getValue().contains(status))
+                            .map(Map.Entry::getKey)
+                            .collect(Collectors.toSet()))));
+        }
+    }
 
+    public boolean canTransitionTo(OrderStatus next) {
+        return this == next || NEXT.get(this).contains(next);
+    }
+
+    /**
+     * Estados desde los que se puede llegar a este (incluido el mismo): el {@code WHERE status IN (...)}
+     * del UPDATE condicional.
+     */
+    public Set<OrderStatus> allowedPredecessors() {
+        return PREVIOUS.get(this);
+    }
+
+    /**
+     * Pares (desde, hacia) validos como lista VALUES de SQL, para las sentencias que aplican lotes.
+     */
+    public static String transitionsAsSqlValues() {
+        StringBuilder values = new StringBuilder("VALUES ");
+        for (OrderStatus to : values()) {
+            for (OrderStatus from : to.allowedPredecessors()) {
+                values.append("('").append(from.name()).append("', '").append(to.name()).append("'), ");
+            }
+        }
+        return values.substring(0, values.length() - 2);
+    }
+}
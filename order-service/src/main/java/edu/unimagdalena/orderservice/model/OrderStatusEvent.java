@@ -0,0 +1,34 @@
+package edu.unimagdalena.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cambio de estado recibido del outbox de payment-service. Guardar el eventId hace idempotente la
+ * entrega al menos una vez: un evento reenviado choca con la clave primaria y no se vuelve a aplicar.
+ */
+@Entity
+@Table(name = "order_status_events",
+        indexes = @Index(name = "idx_order_status_events_order_date", columnList = "order_id, occurred_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEvent {
+
+    @Id
+    private UUID eventId;
+
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private LocalDateTime occurredAt;
+
+    private LocalDateTime receivedAt;
+}
@@ -0,0 +1,20 @@
+package edu.unimagdalena.orderservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Cambio de estado condicional: solo se aplica si la orden sigue en {@code expectedStatus}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusTransition {
+
+    private UUID orderId;
+    private OrderStatus expectedStatus;
+    private OrderStatus newStatus;
+}
@@ -0,0 +1,18 @@
+package edu.unimagdalena.orderservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusTransitionResult {
+
+    private UUID orderId;
+    private boolean applied;
+    // Estado tras el intento; null si la orden no existe
+    private OrderStatus currentStatus;
+}
@@ -1,12 +1,46 @@
 package edu.unimagdalena.orderservice.repository;
 
 import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
-}
+public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order> {
+
+    /**
+     * Transicion condicional en un solo UPDATE: solo cambia la fila si su estado actual esta en {@code allowed}
+     * (sin estado cuenta como permitido). Devuelve 0 si la orden no existe o no admite la transicion.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id = :id AND (o.status IN :allowed OR o.status IS NULL)")
+    int transitionStatus(@Param("id") UUID id, @Param("status") OrderStatus status, @Param("allowed") Collection<OrderStatus> allowed);
 
+    /**
+     * Escribe todos los campos editables en un solo UPDATE condicionado al estado leido ({@code currentStatus},
+     * que puede ser null). Devuelve 0 si la orden no existe o su estado cambio desde la lectura.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Order o SET o.products = :products, o.status = :status, o.totalAmount = :totalAmount, o.paymentId = :paymentId
+            WHERE o.id = :id AND (o.status = :currentStatus OR (o.status IS NULL AND :currentStatus IS NULL))
+            """)
+    int updateIfStatus(@Param("id") UUID id,
+                       @Param("currentStatus") OrderStatus currentStatus,
+                       @Param("products") List<UUID> products,
+                       @Param("status") OrderStatus status,
+                       @Param("totalAmount") BigDecimal totalAmount,
+                       @Param("paymentId") UUID paymentId);
+}
@@ -0,0 +1,116 @@
+package edu.unimagdalena.orderservice.repository;
+
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Transiciones de estado masivas con un solo UPDATE condicional por lote: las tuplas viajan como
+ * arrays y se cruzan con {@code orders} via unnest, sin cargar entidades ni un round trip por orden.
+ */
+@Repository
+public class OrderStatusBulkRepository {
+
+    // Tuplas por sentencia: acota el tamaño de los arrays enviados y lo que bloquea cada UPDATE
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    // DISTINCT ON: si una orden se repite en el lote solo cuenta su primera transicion
+    private static final String UPDATE_SQL = """
+            UPDATE orders o SET status = t.new_status
+            FROM (SELECT DISTINCT ON (id) id, expected_status, new_status
+                  FROM unnest(?::uuid[], ?::varchar[], ?::varchar[]) WITH ORDINALITY AS u(id, expected_status, new_status, position)
+                  ORDER BY id, position) t
+            WHERE o.id = t.id AND o.status = t.expected_status
+              AND (t.expected_status, t.new_status) IN (%s)
+            RETURNING o.id
+            """.formatted(OrderStatus.transitionsAsSqlValues());
+
+    private static final String CURRENT_STATUS_SQL = "SELECT id, status FROM orders WHERE id = ANY(?::uuid[])";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderStatusBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aplica un lote de hasta {@link #MAX_BATCH_SIZE} transiciones. Los resultados van en el mismo orden;
+     * las no aplicadas informan el estado actual, que es una sola consulta extra y solo si hubo rechazos.
+     */
+    public List<StatusTransitionResult> applyTransitions(List<StatusTransition> transitions) {
+        if (transitions.isEmpty()) {
+            return List.of();
+        }
+        validate(transitions);
+        UUID[] ids = transitions.stream().map(StatusTransition::getOrderId).toArray(UUID[]::new);
+        String[] expected = transitions.stream().map(transition -> transition.getExpectedStatus().name()).toArray(String[]::new);
+        String[] next = transitions.stream().map(transition -> transition.getNewStatus().name()).toArray(String[]::new);
+
+        Set<UUID> applied = new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPDATE_SQL);
+            statement.setArray(1, connection.createArrayOf("uuid", ids));
+            statement.setArray(2, connection.createArrayOf("varchar", expected));
+            statement.setArray(3, connection.createArrayOf("varchar", next));
+            return statement;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class)));
+
+        Map<UUID, OrderStatus> current = new HashMap<>();
+        if (applied.size() < ids.length) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(CURRENT_STATUS_SQL);
+                statement.setArray(1, connection.createArrayOf("uuid", ids));
+                return statement;
+            }, rs -> {
+                current.put(rs.getObject("id", UUID.class), toStatus(rs.getString("status")));
+            });
+        }
+        return toResults(transitions, applied, current);
+    }
+
+    public static void validate(List<StatusTransition> transitions) {
+        if (transitions.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " transitions per batch");
+        }
+        for (int i = 0; i < transitions.size(); i++) {
+            StatusTransition transition = transitions.get(i);
+            if (transition.getOrderId() == null || transition.getExpectedStatus() == null || transition.getNewStatus() == null) {
+                throw new IllegalArgumentException("orderId, expectedStatus and newStatus are required (index " + i + ")");
+            }
+        }
+    }
+
+    /**
+     * Resultados en el orden de entrada a partir de las ordenes actualizadas y del estado actual de las demas.
+     */
+    public static List<StatusTransitionResult> toResults(List<StatusTransition> transitions,
+                                                         Set<UUID> applied,
+                                                         Map<UUID, OrderStatus> current) {
+        List<StatusTransitionResult> results = new ArrayList<>(transitions.size());
+        Set<UUID> reported = new HashSet<>();
+        for (StatusTransition transition : transitions) {
+            UUID id = transition.getOrderId();
+            // Solo la primera aparicion de una orden aplicada se reporta como aplicada
+            if (applied.contains(id) && reported.add(id)) {
+                results.add(new StatusTransitionResult(id, true, transition.getNewStatus()));
+            } else {
+                results.add(new StatusTransitionResult(id, false, current.get(id)));
+            }
+        }
+        return results;
+    }
+
+    public static OrderStatus toStatus(String status) {
+        return status != null ? OrderStatus.valueOf(status) : null;
+    }
+}
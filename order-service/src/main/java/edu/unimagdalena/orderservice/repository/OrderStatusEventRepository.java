@@ -0,0 +1,121 @@
+package edu.unimagdalena.orderservice.repository;
+
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.OrderStatusEvent;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Aplica lotes de eventos de estado en una sola sentencia, atomica por si misma:
+ * <ol>
+ *     <li>registra los eventos nuevos; los ya recibidos se descartan por la clave primaria,</li>
+ *     <li>toma el mas reciente de cada orden dentro del lote,</li>
+ *     <li>y solo lo aplica si la orden no tiene ya un evento posterior (entregas fuera de orden) y la
+ *     maquina de estados de {@link OrderStatus} admite la transicion.</li>
+ * </ol>
+ * Los eventos mas recientes que la maquina de estados rechaza se registran en el log: el evento queda
+ * guardado pero la orden no cambia, y sin el aviso se perderian en silencio.
+ */
+@Repository
+public class OrderStatusEventRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusEventRepository.class);
+
+    private static final String APPLY_SQL = """
+            WITH incoming AS (
+                SELECT * FROM unnest(CAST(? AS uuid[]), CAST(? AS uuid[]), CAST(? AS varchar[]), CAST(? AS timestamp[]))
+                    AS t(event_id, order_id, status, occurred_at)
+            ), recorded AS (
+                INSERT INTO order_status_events (event_id, order_id, status, occurred_at, received_at)
+                SELECT event_id, order_id, status, occurred_at, now() FROM incoming
+                ON CONFLICT (event_id) DO NOTHING
+                RETURNING order_id, status, occurred_at
+            ), latest AS (
+                SELECT DISTINCT ON (order_id) order_id, status, occurred_at
+                FROM recorded
+                ORDER BY order_id, occurred_at DESC
+            ), applied AS (
+                UPDATE orders o SET status = latest.status
+                FROM latest
+                WHERE o.id = latest.order_id
+                  AND (o.status IS NULL OR (o.status, latest.status) IN (%s))
+                  AND NOT EXISTS (SELECT 1 FROM order_status_events e
+                                  WHERE e.order_id = latest.order_id AND e.occurred_at > latest.occurred_at)
+                RETURNING o.id
+            )
+            -- o.status es el estado previo: la sentencia ve la tabla de antes del UPDATE
+            SELECT latest.order_id, latest.status, o.status AS previous_status, applied.id IS NOT NULL AS applied
+            FROM latest
+            JOIN orders o ON o.id = latest.order_id
+            LEFT JOIN applied ON applied.id = latest.order_id
+            WHERE applied.id IS NOT NULL
+               OR NOT EXISTS (SELECT 1 FROM order_status_events e
+                              WHERE e.order_id = latest.order_id AND e.occurred_at > latest.occurred_at)
+            """.formatted(OrderStatus.transitionsAsSqlValues());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderStatusEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Devuelve los ids de las ordenes que cambiaron de estado.
+     */
+    public List<UUID> apply(List<OrderStatusEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        validate(events);
+        UUID[] eventIds = events.stream().map(OrderStatusEvent::getEventId).toArray(UUID[]::new);
+        UUID[] orderIds = events.stream().map(OrderStatusEvent::getOrderId).toArray(UUID[]::new);
+        String[] statuses = events.stream().map(event -> event.getStatus().name()).toArray(String[]::new);
+        Timestamp[] occurredAt = events.stream().map(event -> Timestamp.valueOf(event.getOccurredAt())).toArray(Timestamp[]::new);
+
+        List<StatusTransitionResult> results = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY_SQL);
+            statement.setArray(1, connection.createArrayOf("uuid", eventIds));
+            statement.setArray(2, connection.createArrayOf("uuid", orderIds));
+            statement.setArray(3, connection.createArrayOf("varchar", statuses));
+            statement.setArray(4, connection.createArrayOf("timestamp", occurredAt));
+            return statement;
+        }, (rs, rowNum) -> toResult(rs.getObject("order_id", UUID.class), rs.getString("status"),
+                rs.getString("previous_status"), rs.getBoolean("applied")));
+        return appliedOrderIds(results);
+    }
+
+    /**
+     * Fila del resultado de la sentencia. Si no se aplico, la maquina de estados rechazo el evento.
+     */
+    public static StatusTransitionResult toResult(UUID orderId, String status, String previousStatus, boolean applied) {
+        if (applied) {
+            return new StatusTransitionResult(orderId, true, OrderStatus.valueOf(status));
+        }
+        logger.warn("Status event for order {} rejected by the state machine: {} -> {}", orderId, previousStatus, status);
+        return new StatusTransitionResult(orderId, false, previousStatus == null ? null : OrderStatus.valueOf(previousStatus));
+    }
+
+    public static List<UUID> appliedOrderIds(List<StatusTransitionResult> results) {
+        return results.stream()
+                .filter(StatusTransitionResult::isApplied)
+                .map(StatusTransitionResult::getOrderId)
+                .toList();
+    }
+
+    public static void validate(List<OrderStatusEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            OrderStatusEvent event = events.get(i);
+            if (event.getEventId() == null || event.getOrderId() == null || event.getStatus() == null || event.getOccurredAt() == null) {
+                throw new IllegalArgumentException("eventId, orderId, status and occurredAt are required (index " + i + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package edu.unimagdalena.orderservice.service;
+
+import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderPage;
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.OrderStatusEvent;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * OrderService (JPA) expuesto como API reactiva: cada llamada se crea de forma perezosa con
+ * fromCallable y se ejecuta en el scheduler JPA, nunca en el event loop.
+ */
+@Service
+@Profile("!r2dbc")
+public class BlockingOrderServiceAdapter implements ReactiveOrderService {
+
+    private final OrderService orderService;
+    private final Scheduler jpaScheduler;
+
+    public BlockingOrderServiceAdapter(OrderService orderService, @Qualifier("jpaScheduler") Scheduler jpaScheduler) {
+        this.orderService = orderService;
+        this.jpaScheduler = jpaScheduler;
+    }
+
+    @Override
+    public Flux<Order> getAllOrders() {
+        return Flux.defer(() -> Flux.fromIterable(orderService.getAllOrders()))
+                .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Mono<OrderPage> getOrderPage(OrderStatus status, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        return Mono.fromCallable(() -> orderService.getOrderPage(status, from, to, cursor, size))
+                .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Mono<Order> getOrderById(UUID id) {
+        return Mono.fromCallable(() -> orderService.getOrderById(id))
+                .flatMap(Mono::justOrEmpty)
+                .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Mono<Order> createOrder(Order order) {
+        return Mono.fromCallable(() -> orderService.createOrder(order))
+                .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Mono<Order> updateOrder(UUID id, Order orderDetails) {
+        return Mono.fromCallable(() -> orderService.updateOrder(id, orderDetails))
+                .flatMap(Mono::justOrEmpty)
+                .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Mono<Order> updateOrderStatus(UUID id, OrderStatus status) {
+        return Mono.fromCallable(() -> orderService.updateOrderStatus(id, status))
+                .flatMap(Mono::justOrEmpty)
+                .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Mono<Void> deleteOrder(UUID id) {
+        return Mono.<Void>fromRunnable(() -> orderService.deleteOrder(id))
+                .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Flux<StatusTransitionResult> updateOrderStatuses(List<StatusTransition> transitions) {
+        return Flux.defer(() -> Flux.fromIterable(orderService.updateOrderStatuses(transitions)))
+                .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Mono<Integer> applyStatusEvents(List<OrderStatusEvent> events) {
+        return Mono.fromCallable(() -> orderService.applyStatusEvents(events))
+                .subscribeOn(jpaScheduler);
+    }
+}
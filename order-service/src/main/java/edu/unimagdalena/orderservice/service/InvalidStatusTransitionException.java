@@ -0,0 +1,14 @@
+package edu.unimagdalena.orderservice.service;
+
+import edu.unimagdalena.orderservice.model.OrderStatus;
+
+/**
+ * La orden no esta en un estado desde el que se permita la transicion pedida, ya sea por la maquina
+ * de estados o porque otra peticion la cambio primero.
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    public InvalidStatusTransitionException(OrderStatus current, OrderStatus requested) {
+        super("Cannot change order status from " + current + " to " + requested);
+    }
+}
@@ -1,7 +1,11 @@
 package edu.unimagdalena.orderservice.service;
 
 import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderPage;
 import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.OrderStatusEvent;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
 import edu.unimagdalena.orderservice.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -13,9 +17,13 @@ import java.util.UUID;
 
 public interface OrderService {
     List<Order> getAllOrders();
+    // Keyset de la mas reciente a la mas antigua; filtros opcionales (null), from inclusivo y to exclusivo
+    OrderPage getOrderPage(OrderStatus status, LocalDateTime from, LocalDateTime to, String cursor, int size);
     Optional<Order> getOrderById(UUID id);
     Order createOrder(Order order);
     Optional<Order> updateOrder(UUID id, Order orderDetails);
     Optional<Order> updateOrderStatus(UUID id, OrderStatus status);
     void deleteOrder(UUID id);
+    List<StatusTransitionResult> updateOrderStatuses(List<StatusTransition> transitions);
+    int applyStatusEvents(List<OrderStatusEvent> events);
 }
\ No newline at end of file
@@ -1,14 +1,32 @@
 package edu.unimagdalena.orderservice.service;
 
+import edu.unimagdalena.orderservice.config.CacheConfig;
 import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderPage;
 import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.OrderStatusEvent;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
 import edu.unimagdalena.orderservice.repository.OrderRepository;
+import edu.unimagdalena.orderservice.repository.OrderStatusBulkRepository;
+import edu.unimagdalena.orderservice.repository.OrderStatusEventRepository;
 import edu.unimagdalena.orderservice.service.OrderService;
+import edu.unimagdalena.orderservice.service.pagination.OrderCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,7 +34,12 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final Sort PAGE_SORT = Sort.by(Sort.Direction.DESC, "orderDate", "id");
+
     private final OrderRepository orderRepository;
+    private final OrderStatusBulkRepository orderStatusBulkRepository;
+    private final OrderStatusEventRepository orderStatusEventRepository;
+    private final CacheManager cacheManager;
 
     @Override
     public List<Order> getAllOrders() {
@@ -24,6 +47,37 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    public OrderPage getOrderPage(OrderStatus status, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        // Las ordenes sin fecha no tienen posicion en el keyset
+        Specification<Order> spec = (root, query, cb) -> cb.isNotNull(root.get("orderDate"));
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (from != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("orderDate"), from));
+        }
+        if (to != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("orderDate"), to));
+        }
+        ScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null) {
+            OrderCursor after = OrderCursor.decode(cursor);
+            position = ScrollPosition.forward(Map.of("orderDate", after.orderDate(), "id", after.id()));
+        }
+        ScrollPosition start = position;
+
+        Window<Order> window = orderRepository.findBy(spec, query -> query
+                .sortBy(PAGE_SORT)
+                .limit(size)
+                .scroll(start));
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? OrderCursor.of(window.getContent().get(window.size() - 1)).encode()
+                : null;
+        return new OrderPage(window.getContent(), nextCursor);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.ORDER_CACHE, key = "#id", unless = "#result == null")
     public Optional<Order> getOrderById(UUID id) {
         return orderRepository.findById(id);
     }
@@ -37,37 +91,81 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ORDER_CACHE, key = "#id")
     public Optional<Order> updateOrder(UUID id, Order orderDetails) {
         return orderRepository.findById(id)
                 .map(existingOrder -> {
+                    OrderStatus current = existingOrder.getStatus();
+                    if (orderDetails.getStatus() != null && orderDetails.getStatus() != current) {
+                        if (current != null && !current.canTransitionTo(orderDetails.getStatus())) {
+                            throw new InvalidStatusTransitionException(current, orderDetails.getStatus());
+                        }
+                        existingOrder.setStatus(orderDetails.getStatus());
+                    }
                     if (orderDetails.getProducts() != null) {
                         existingOrder.setProducts(orderDetails.getProducts());
                     }
-                    if (orderDetails.getStatus() != null) {
-                        existingOrder.setStatus(orderDetails.getStatus());
-                    }
                     if (orderDetails.getTotalAmount() != null) {
                         existingOrder.setTotalAmount(orderDetails.getTotalAmount());
                     }
                     if (orderDetails.getPaymentId() != null) {
                         existingOrder.setPaymentId(orderDetails.getPaymentId());
                     }
-                    return orderRepository.save(existingOrder);
+                    // Un solo UPDATE condicionado al estado leido en lugar de save(): el merge de la copia leida
+                    // pisaria un cambio de estado hecho por otra peticion entre la lectura y la escritura
+                    int updated = orderRepository.updateIfStatus(id, current, existingOrder.getProducts(),
+                            existingOrder.getStatus(), existingOrder.getTotalAmount(), existingOrder.getPaymentId());
+                    if (updated == 0) {
+                        throw new InvalidStatusTransitionException(current, existingOrder.getStatus());
+                    }
+                    return existingOrder;
                 });
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ORDER_CACHE, key = "#id")
     public Optional<Order> updateOrderStatus(UUID id, OrderStatus status) {
-        return orderRepository.findById(id)
-                .map(existingOrder -> {
-                    existingOrder.setStatus(status);
-                    return orderRepository.save(existingOrder);
-                });
+        // Sin SELECT previo: el UPDATE valida el estado actual contra la maquina de estados
+        if (orderRepository.transitionStatus(id, status, status.allowedPredecessors()) == 0) {
+            // Solo en el caso de fallo se lee la orden, para distinguir inexistente de transicion invalida
+            return orderRepository.findById(id)
+                    .map(order -> {
+                        throw new InvalidStatusTransitionException(order.getStatus(), status);
+                    });
+        }
+        return orderRepository.findById(id);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ORDER_CACHE, key = "#id")
     public void deleteOrder(UUID id) {
         orderRepository.deleteById(id);
     }
+
+    @Override
+    public List<StatusTransitionResult> updateOrderStatuses(List<StatusTransition> transitions) {
+        // UPDATE condicional directo en SQL: cargar y guardar cada entidad costaria dos round trips por orden
+        List<StatusTransitionResult> results = orderStatusBulkRepository.applyTransitions(transitions);
+        evictOrders(results.stream()
+                .filter(StatusTransitionResult::isApplied)
+                .map(StatusTransitionResult::getOrderId)
+                .toList());
+        return results;
+    }
+
+    @Override
+    public int applyStatusEvents(List<OrderStatusEvent> events) {
+        List<UUID> updated = orderStatusEventRepository.apply(events);
+        evictOrders(updated);
+        return updated.size();
+    }
+
+    // Las escrituras masivas no pasan por @CacheEvict: se invalidan solo las ordenes que cambiaron
+    private void evictOrders(Collection<UUID> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.ORDER_CACHE);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
 }
 
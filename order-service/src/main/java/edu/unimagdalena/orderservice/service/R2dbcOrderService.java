@@ -0,0 +1,333 @@
+package edu.unimagdalena.orderservice.service;
+
+import edu.unimagdalena.orderservice.config.CacheConfig;
+import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderPage;
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.OrderStatusEvent;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
+import edu.unimagdalena.orderservice.repository.OrderStatusBulkRepository;
+import edu.unimagdalena.orderservice.repository.OrderStatusEventRepository;
+import edu.unimagdalena.orderservice.service.pagination.OrderCursor;
+import io.r2dbc.spi.Readable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Perfil {@code r2dbc}: persistencia de Order con el driver reactivo de PostgreSQL, sin hilos
+ * bloqueados en ningun punto. Usa la misma tabla {@code orders} que JPA; los productos van en la
+ * columna uuid[] de la fila, asi cada operacion es una sola sentencia.
+ */
+@Service
+@Profile("r2dbc")
+public class R2dbcOrderService implements ReactiveOrderService {
+
+    private static final String SELECT_ORDERS =
+            "SELECT id, order_date, status, total_amount, payment_id, products FROM orders";
+
+    private final DatabaseClient databaseClient;
+    private final CacheManager cacheManager;
+
+    public R2dbcOrderService(DatabaseClient databaseClient, CacheManager cacheManager) {
+        this.databaseClient = databaseClient;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Flux<Order> getAllOrders() {
+        return databaseClient.sql(SELECT_ORDERS)
+                .map(R2dbcOrderService::toOrder)
+                .all();
+    }
+
+    @Override
+    public Mono<OrderPage> getOrderPage(OrderStatus status, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        return Mono.defer(() -> {
+            // Solo se agregan las condiciones presentes, para que el plan use el indice adecuado
+            StringBuilder sql = new StringBuilder(SELECT_ORDERS).append(" WHERE order_date IS NOT NULL");
+            Map<String, Object> params = new HashMap<>();
+            if (status != null) {
+                sql.append(" AND status = :status");
+                params.put("status", status.name());
+            }
+            if (from != null) {
+                sql.append(" AND order_date >= :from");
+                params.put("from", from);
+            }
+            if (to != null) {
+                sql.append(" AND order_date < :to");
+                params.put("to", to);
+            }
+            if (cursor != null) {
+                OrderCursor after = OrderCursor.decode(cursor);
+                sql.append(" AND (order_date, id) < (:afterDate, :afterId)");
+                params.put("afterDate", after.orderDate());
+                params.put("afterId", after.id());
+            }
+            // Una fila extra indica si hay pagina siguiente
+            sql.append(" ORDER BY order_date DESC, id DESC LIMIT ").append(size + 1);
+
+            DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+            for (Map.Entry<String, Object> param : params.entrySet()) {
+                spec = spec.bind(param.getKey(), param.getValue());
+            }
+            return spec.map(R2dbcOrderService::toOrder)
+                    .all()
+                    .collectList()
+                    .map(rows -> {
+                        boolean hasMore = rows.size() > size;
+                        List<Order> items = hasMore ? rows.subList(0, size) : rows;
+                        return new OrderPage(items, hasMore ? OrderCursor.of(items.get(size - 1)).encode() : null);
+                    });
+        });
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.ORDER_CACHE, key = "#id", unless = "#result == null")
+    public Mono<Order> getOrderById(UUID id) {
+        return databaseClient.sql(SELECT_ORDERS + " WHERE id = :id")
+                .bind("id", id)
+                .map(R2dbcOrderService::toOrder)
+                .one();
+    }
+
+    @Override
+    public Mono<Order> createOrder(Order order) {
+        return Mono.defer(() -> {
+            order.setId(UUID.randomUUID());
+            if (order.getOrderDate() == null) {
+                order.setOrderDate(LocalDateTime.now());
+            }
+            return bindNullable(databaseClient.sql("""
+                            INSERT INTO orders (id, order_date, status, total_amount, payment_id, products)
+                            VALUES (:id, :orderDate, :status, :totalAmount, :paymentId, :products)
+                            """), order)
+                    .fetch()
+                    .rowsUpdated()
+                    .thenReturn(order);
+        });
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ORDER_CACHE, key = "#id")
+    public Mono<Order> updateOrder(UUID id, Order orderDetails) {
+        return getOrderById(id)
+                .flatMap(existingOrder -> {
+                    OrderStatus current = existingOrder.getStatus();
+                    if (orderDetails.getStatus() != null) {
+                        if (current != null && !current.canTransitionTo(orderDetails.getStatus())) {
+                            return Mono.error(new InvalidStatusTransitionException(current, orderDetails.getStatus()));
+                        }
+                        existingOrder.setStatus(orderDetails.getStatus());
+                    }
+                    if (orderDetails.getTotalAmount() != null) {
+                        existingOrder.setTotalAmount(orderDetails.getTotalAmount());
+                    }
+                    if (orderDetails.getPaymentId() != null) {
+                        existingOrder.setPaymentId(orderDetails.getPaymentId());
+                    }
+                    if (orderDetails.getProducts() != null) {
+                        existingOrder.setProducts(orderDetails.getProducts());
+                    }
+                    // Condicionado al estado leido: si otra peticion lo cambio entre medio no se pisa
+                    DatabaseClient.GenericExecuteSpec update = bindNullable(databaseClient.sql("""
+                                    UPDATE orders SET order_date = :orderDate, status = :status,
+                                           total_amount = :totalAmount, payment_id = :paymentId, products = :products
+                                    WHERE id = :id AND status IS NOT DISTINCT FROM :currentStatus
+                                    """), existingOrder);
+                    update = current != null ? update.bind("currentStatus", current.name()) : update.bindNull("currentStatus", String.class);
+                    return update.fetch()
+                            .rowsUpdated()
+                            .flatMap(updated -> updated > 0
+                                    ? Mono.just(existingOrder)
+                                    : Mono.error(new InvalidStatusTransitionException(current, existingOrder.getStatus())));
+                });
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ORDER_CACHE, key = "#id")
+    public Mono<Order> updateOrderStatus(UUID id, OrderStatus status) {
+        // UPDATE directo, sin leer la orden antes: el WHERE valida el estado actual contra la maquina de estados
+        return databaseClient.sql("""
+                        UPDATE orders SET status = :status
+                        WHERE id = :id AND (status = ANY(:allowed) OR status IS NULL)
+                        """)
+                .bind("status", status.name())
+                .bind("id", id)
+                .bind("allowed", status.allowedPredecessors().stream().map(Enum::name).toArray(String[]::new))
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated > 0
+                        ? getOrderById(id)
+                        // Sin fila actualizada: no existe (vacio) o no admite la transicion (error)
+                        : getOrderById(id).flatMap(order -> Mono.<Order>error(new InvalidStatusTransitionException(order.getStatus(), status))));
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ORDER_CACHE, key = "#id")
+    public Mono<Void> deleteOrder(UUID id) {
+        return databaseClient.sql("DELETE FROM orders WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    @Override
+    public Flux<StatusTransitionResult> updateOrderStatuses(List<StatusTransition> transitions) {
+        return Flux.defer(() -> {
+            if (transitions.isEmpty()) {
+                return Flux.empty();
+            }
+            OrderStatusBulkRepository.validate(transitions);
+            UUID[] ids = transitions.stream().map(StatusTransition::getOrderId).toArray(UUID[]::new);
+            String[] expected = transitions.stream().map(transition -> transition.getExpectedStatus().name()).toArray(String[]::new);
+            String[] next = transitions.stream().map(transition -> transition.getNewStatus().name()).toArray(String[]::new);
+
+            // Misma sentencia que OrderStatusBulkRepository: un UPDATE condicional por lote via unnest
+            Mono<Set<UUID>> applied = databaseClient.sql("""
+                            UPDATE orders o SET status = t.new_status
+                            FROM (SELECT DISTINCT ON (id) id, expected_status, new_status
+                                  FROM unnest(CAST(:ids AS uuid[]), CAST(:expected AS varchar[]), CAST(:next AS varchar[]))
+                                       WITH ORDINALITY AS u(id, expected_status, new_status, position)
+                                  ORDER BY id, position) t
+                            WHERE o.id = t.id AND o.status = t.expected_status
+                              AND (t.expected_status, t.new_status) IN (%s)
+                            RETURNING o.id
+                            """.formatted(OrderStatus.transitionsAsSqlValues()))
+                    .bind("ids", ids)
+                    .bind("expected", expected)
+                    .bind("next", next)
+                    .map(row -> row.get("id", UUID.class))
+                    .all()
+                    .collect(Collectors.toSet());
+
+            return applied.flatMap(updated -> {
+                        if (updated.size() == ids.length) {
+                            return Mono.just(OrderStatusBulkRepository.toResults(transitions, updated, Map.of()));
+                        }
+                        return databaseClient.sql("SELECT id, status FROM orders WHERE id = ANY(:ids)")
+                                .bind("ids", ids)
+                                .map(row -> Map.entry(row.get("id", UUID.class), Optional.ofNullable(row.get("status", String.class))))
+                                .all()
+                                .collectMap(Map.Entry::getKey, entry -> entry.getValue().map(OrderStatus::valueOf).orElse(null))
+                                .map(current -> OrderStatusBulkRepository.toResults(transitions, updated, current));
+                    })
+                    .flatMap(results -> evictOrders(results.stream()
+                                    .filter(StatusTransitionResult::isApplied)
+                                    .map(StatusTransitionResult::getOrderId)
+                                    .toList())
+                            .thenReturn(results))
+                    .flatMapIterable(results -> results);
+        });
+    }
+
+    // Las escrituras masivas no pasan por @CacheEvict. El cliente de RedisCache es bloqueante:
+    // se invalida fuera del hilo del driver R2DBC
+    private Mono<Void> evictOrders(Collection<UUID> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.ORDER_CACHE);
+        if (cache == null || ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> ids.forEach(cache::evict))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Integer> applyStatusEvents(List<OrderStatusEvent> events) {
+        return Mono.defer(() -> {
+            if (events.isEmpty()) {
+                return Mono.just(0);
+            }
+            OrderStatusEventRepository.validate(events);
+            // Misma sentencia que OrderStatusEventRepository; las fechas viajan como texto ISO y se castean en SQL
+            return databaseClient.sql("""
+                            WITH incoming AS (
+                                SELECT * FROM unnest(CAST(:eventIds AS uuid[]), CAST(:orderIds AS uuid[]),
+                                                     CAST(:statuses AS varchar[]), CAST(:occurredAt AS timestamp[]))
+                                    AS t(event_id, order_id, status, occurred_at)
+                            ), recorded AS (
+                                INSERT INTO order_status_events (event_id, order_id, status, occurred_at, received_at)
+                                SELECT event_id, order_id, status, occurred_at, now() FROM incoming
+                                ON CONFLICT (event_id) DO NOTHING
+                                RETURNING order_id, status, occurred_at
+                            ), latest AS (
+                                SELECT DISTINCT ON (order_id) order_id, status, occurred_at
+                                FROM recorded
+                                ORDER BY order_id, occurred_at DESC
+                            ), applied AS (
+                                UPDATE orders o SET status = latest.status
+                                FROM latest
+                                WHERE o.id = latest.order_id
+                                  AND (o.status IS NULL OR (o.status, latest.status) IN (%s))
+                                  AND NOT EXISTS (SELECT 1 FROM order_status_events e
+                                                  WHERE e.order_id = latest.order_id AND e.occurred_at > latest.occurred_at)
+                                RETURNING o.id
+                            )
+                            SELECT latest.order_id, latest.status, o.status AS previous_status, applied.id IS NOT NULL AS applied
+                            FROM latest
+                            JOIN orders o ON o.id = latest.order_id
+                            LEFT JOIN applied ON applied.id = latest.order_id
+                            WHERE applied.id IS NOT NULL
+                               OR NOT EXISTS (SELECT 1 FROM order_status_events e
+                                              WHERE e.order_id = latest.order_id AND e.occurred_at > latest.occurred_at)
+                            """.formatted(OrderStatus.transitionsAsSqlValues()))
+                    .bind("eventIds", events.stream().map(OrderStatusEvent::getEventId).toArray(UUID[]::new))
+                    .bind("orderIds", events.stream().map(OrderStatusEvent::getOrderId).toArray(UUID[]::new))
+                    .bind("statuses", events.stream().map(event -> event.getStatus().name()).toArray(String[]::new))
+                    .bind("occurredAt", events.stream().map(event -> event.getOccurredAt().toString()).toArray(String[]::new))
+                    .map(row -> OrderStatusEventRepository.toResult(row.get("order_id", UUID.class),
+                            row.get("status", String.class), row.get("previous_status", String.class),
+                            Boolean.TRUE.equals(row.get("applied", Boolean.class))))
+                    .all()
+                    .collectList()
+                    .map(OrderStatusEventRepository::appliedOrderIds)
+                    .flatMap(updated -> evictOrders(updated).thenReturn(updated.size()));
+        });
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, Order order) {
+        spec = spec.bind("id", order.getId());
+        spec = order.getOrderDate() != null ? spec.bind("orderDate", order.getOrderDate()) : spec.bindNull("orderDate", LocalDateTime.class);
+        spec = order.getStatus() != null ? spec.bind("status", order.getStatus().name()) : spec.bindNull("status", String.class);
+        spec = order.getTotalAmount() != null ? spec.bind("totalAmount", order.getTotalAmount()) : spec.bindNull("totalAmount", BigDecimal.class);
+        spec = order.getPaymentId() != null ? spec.bind("paymentId", order.getPaymentId()) : spec.bindNull("paymentId", UUID.class);
+        return order.getProducts() != null
+                ? spec.bind("products", order.getProducts().toArray(UUID[]::new))
+                : spec.bindNull("products", UUID[].class);
+    }
+
+    static Order toOrder(Readable row) {
+        String status = row.get("status", String.class);
+        UUID[] products = row.get("products", UUID[].class);
+        return Order.builder()
+                .id(row.get("id", UUID.class))
+                .orderDate(row.get("order_date", LocalDateTime.class))
+                .status(status != null ? OrderStatus.valueOf(status) : null)
+                .totalAmount(row.get("total_amount", BigDecimal.class))
+                .paymentId(row.get("payment_id", UUID.class))
+                .products(products != null ? Arrays.asList(products) : List.of())
+                .build();
+    }
+}
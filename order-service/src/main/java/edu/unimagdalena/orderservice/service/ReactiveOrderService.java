@@ -0,0 +1,52 @@
+package edu.unimagdalena.orderservice.service;
+
+import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderPage;
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.OrderStatusEvent;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
+import edu.unimagdalena.orderservice.service.pagination.OrderCursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Contrato no bloqueante que usa OrderController. Ninguna llamada toca la base de datos hasta la suscripcion.
+ */
+public interface ReactiveOrderService {
+    Flux<Order> getAllOrders();
+    Mono<OrderPage> getOrderPage(OrderStatus status, LocalDateTime from, LocalDateTime to, String cursor, int size);
+
+    /**
+     * Recorre todas las ordenes del filtro pagina a pagina: memoria constante y consultas cortas,
+     * sin mantener un cursor ni una transaccion abiertos durante toda la exportacion.
+     */
+    default Flux<Order> streamOrders(OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        return getOrderPage(status, from, to, null, OrderCursor.MAX_PAGE_SIZE)
+                .expand(page -> page.getNextCursor() == null
+                        ? Mono.empty()
+                        : getOrderPage(status, from, to, page.getNextCursor(), OrderCursor.MAX_PAGE_SIZE))
+                .concatMapIterable(OrderPage::getItems);
+    }
+
+    Mono<Order> getOrderById(UUID id);
+    Mono<Order> createOrder(Order order);
+    Mono<Order> updateOrder(UUID id, Order orderDetails);
+    Mono<Order> updateOrderStatus(UUID id, OrderStatus status);
+    Mono<Void> deleteOrder(UUID id);
+
+    /**
+     * Un lote de hasta {@link edu.unimagdalena.orderservice.repository.OrderStatusBulkRepository#MAX_BATCH_SIZE}
+     * transiciones condicionales; un resultado por transicion, en el mismo orden.
+     */
+    Flux<StatusTransitionResult> updateOrderStatuses(List<StatusTransition> transitions);
+
+    /**
+     * Eventos de estado de payment-service (entrega al menos una vez); devuelve cuantas ordenes cambiaron.
+     */
+    Mono<Integer> applyStatusEvents(List<OrderStatusEvent> events);
+}
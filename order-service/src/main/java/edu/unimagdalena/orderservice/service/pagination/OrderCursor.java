@@ -0,0 +1,40 @@
+package edu.unimagdalena.orderservice.service.pagination;
+
+import edu.unimagdalena.orderservice.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posicion de la paginacion keyset de ordenes: la ultima (orderDate, id) entregada. El listado va
+ * de la mas reciente a la mas antigua, asi que la pagina siguiente empieza en {@code (orderDate, id) < cursor}.
+ * Para el cliente es un token opaco (Base64 URL-safe).
+ */
+public record OrderCursor(LocalDateTime orderDate, UUID id) {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final char SEPARATOR = '|';
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getOrderDate(), order.getId());
+    }
+
+    public String encode() {
+        String key = orderDate + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(SEPARATOR);
+            return new OrderCursor(LocalDateTime.parse(key.substring(0, separator)), UUID.fromString(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
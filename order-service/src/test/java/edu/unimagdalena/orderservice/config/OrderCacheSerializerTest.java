@@ -0,0 +1,74 @@
+package edu.unimagdalena.orderservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderCacheSerializerTest {
+
+    private final OrderCacheSerializer serializer = new OrderCacheSerializer();
+
+    @Test
+    void serialize_ShouldRoundTripDateAndExactAmount() {
+        // Arrange
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .products(List.of(UUID.randomUUID(), UUID.randomUUID()))
+                .orderDate(LocalDateTime.of(2025, 3, 1, 10, 30, 15, 123456000))
+                .status(OrderStatus.SHIPPED)
+                .totalAmount(new BigDecimal("100.00"))
+                .paymentId(UUID.randomUUID())
+                .build();
+
+        // Act
+        Order result = serializer.deserialize(serializer.serialize(order));
+
+        // Assert
+        assertThat(result).usingRecursiveComparison().isEqualTo(order);
+        assertThat(result.getTotalAmount().scale()).isEqualTo(2);
+        assertThat(result.getOrderDate().getNano()).isEqualTo(123456000);
+    }
+
+    @Test
+    void serialize_WithMissingFields_ShouldKeepThemNull() {
+        // Arrange
+        Order order = Order.builder().id(UUID.randomUUID()).totalAmount(new BigDecimal("-5")).build();
+
+        // Act
+        Order result = serializer.deserialize(serializer.serialize(order));
+
+        // Assert
+        assertThat(result).usingRecursiveComparison().isEqualTo(order);
+        assertThat(result.getProducts()).isNull();
+        assertThat(result.getOrderDate()).isNull();
+        assertThat(result.getStatus()).isNull();
+    }
+
+    @Test
+    void serialize_ShouldBeSmallerThanJson() throws Exception {
+        // Arrange
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .products(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()))
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("250.50"))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        // Act
+        byte[] compact = serializer.serialize(order);
+
+        // Assert
+        assertThat(compact.length).isLessThan(objectMapper.writeValueAsBytes(order).length);
+    }
+}
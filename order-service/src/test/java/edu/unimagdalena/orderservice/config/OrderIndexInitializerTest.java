@@ -0,0 +1,82 @@
+package edu.unimagdalena.orderservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIndexInitializerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement statement;
+
+    private OrderIndexInitializer initializer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        initializer = new OrderIndexInitializer(jdbcTemplate);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<Void>>getArgument(0).doInConnection(connection));
+        when(connection.createStatement()).thenReturn(statement);
+    }
+
+    @Test
+    void ensureIndexes_WithInvalidIndex_ShouldDropAndRebuildIt() throws Exception {
+        // Arrange
+        ResultSet locked = booleanResult(true);
+        ResultSet invalid = booleanResult(false);
+        ResultSet missing = mock(ResultSet.class);
+        when(statement.executeQuery(contains("pg_try_advisory_lock"))).thenReturn(locked);
+        when(statement.executeQuery(contains("'idx_orders_status_date_id'"))).thenReturn(invalid);
+        when(statement.executeQuery(contains("'idx_orders_date_id'"))).thenReturn(missing);
+
+        // Act
+        initializer.ensureIndexes();
+
+        // Assert
+        verify(statement).execute("DROP INDEX CONCURRENTLY IF EXISTS idx_orders_status_date_id");
+        verify(statement).execute(startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_status_date_id"));
+        verify(statement, never()).execute("DROP INDEX CONCURRENTLY IF EXISTS idx_orders_date_id");
+        verify(statement).execute(startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_date_id"));
+        verify(statement).execute(contains("pg_advisory_unlock"));
+    }
+
+    @Test
+    void ensureIndexes_WhenAnotherInstanceHoldsTheLock_ShouldSkip() throws Exception {
+        // Arrange
+        ResultSet notLocked = booleanResult(false);
+        when(statement.executeQuery(contains("pg_try_advisory_lock"))).thenReturn(notLocked);
+
+        // Act
+        initializer.ensureIndexes();
+
+        // Assert
+        verify(statement, never()).execute(anyString());
+    }
+
+    private static ResultSet booleanResult(boolean value) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getBoolean(1)).thenReturn(value);
+        return rs;
+    }
+}
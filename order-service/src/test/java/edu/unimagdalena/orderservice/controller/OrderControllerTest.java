@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -146,7 +147,7 @@ public class OrderControllerTest {
     void updateOrder_WithExistingId_ShouldReturnUpdatedOrder() {
         // Arrange
         Order orderUpdate = Order.builder()
-                .status(OrderStatus.SHIPPED)
+                .status(OrderStatus.PROCESSING)
                 .totalAmount(new BigDecimal("150.00"))
                 .build();
 
@@ -159,7 +160,7 @@ public class OrderControllerTest {
                 .expectBody(Order.class)
                 .value(order -> {
                     assertThat(order.getId()).isEqualTo(testOrder.getId());
-                    assertThat(order.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+                    assertThat(order.getStatus()).isEqualTo(OrderStatus.PROCESSING);
                     assertThat(order.getTotalAmount()).isEqualByComparingTo(new BigDecimal("150.00"));
                     assertThat(order.getProducts()).isEqualTo(testOrder.getProducts());
                     assertThat(order.getOrderDate().toLocalDate())
@@ -187,13 +188,13 @@ public class OrderControllerTest {
         // Act & Assert
         webTestClient.patch()
                 .uri("/{id}/status", testOrder.getId())
-                .bodyValue(OrderStatus.SHIPPED)
+                .bodyValue(OrderStatus.PROCESSING)
                 .exchange()
                 .expectStatus().isOk()
                 .expectBody(Order.class)
                 .value(order -> {
                     assertThat(order.getId()).isEqualTo(testOrder.getId());
-                    assertThat(order.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+                    assertThat(order.getStatus()).isEqualTo(OrderStatus.PROCESSING);
                     assertThat(order.getProducts()).isEqualTo(testOrder.getProducts());
                     assertThat(order.getOrderDate().toLocalDate())
                             .isEqualTo(testOrder.getOrderDate().toLocalDate());
@@ -201,6 +202,16 @@ public class OrderControllerTest {
                 });
     }
 
+    @Test
+    void updateOrderStatus_WithInvalidTransition_ShouldReturnConflict() {
+        // Act & Assert: PENDING -> DELIVERED se salta PROCESSING y SHIPPED
+        webTestClient.patch()
+                .uri("/{id}/status", testOrder.getId())
+                .bodyValue(OrderStatus.DELIVERED)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
     @Test
     void updateOrderStatus_WithNonExistingId_ShouldReturnNotFound() {
         // Act & Assert
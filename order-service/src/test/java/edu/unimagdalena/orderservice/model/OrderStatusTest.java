@@ -0,0 +1,34 @@
+package edu.unimagdalena.orderservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatusTest {
+
+    @Test
+    void canTransitionTo_ShouldFollowDeclaredLifecycle() {
+        // Assert
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.PROCESSING)).isTrue();
+        assertThat(OrderStatus.PROCESSING.canTransitionTo(OrderStatus.SHIPPED)).isTrue();
+        assertThat(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.DELIVERED)).isTrue();
+        assertThat(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.CANCELLED)).isTrue();
+        assertThat(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.SHIPPED)).isTrue();
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.DELIVERED)).isFalse();
+        assertThat(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.PROCESSING)).isFalse();
+        assertThat(OrderStatus.CANCELLED.canTransitionTo(OrderStatus.PENDING)).isFalse();
+    }
+
+    @Test
+    void allowedPredecessors_ShouldMatchCanTransitionTo() {
+        // Assert
+        assertThat(OrderStatus.SHIPPED.allowedPredecessors()).containsExactlyInAnyOrder(OrderStatus.PROCESSING, OrderStatus.SHIPPED);
+        assertThat(OrderStatus.PENDING.allowedPredecessors()).containsExactly(OrderStatus.PENDING);
+        for (OrderStatus to : OrderStatus.values()) {
+            for (OrderStatus from : OrderStatus.values()) {
+                assertThat(to.allowedPredecessors().contains(from)).isEqualTo(from.canTransitionTo(to));
+            }
+        }
+        assertThat(OrderStatus.transitionsAsSqlValues()).startsWith("VALUES ").contains("('SHIPPED', 'DELIVERED')");
+    }
+}
@@ -139,5 +139,53 @@ public class OrderRepositoryTest {
         // Assert
         assertThat(deletedOrder).isEmpty();
     }
-}
 
+    @Test
+    void updateIfStatus_WhenStatusChangedAfterRead_ShouldNotOverwriteIt() {
+        // Arrange
+        Order savedOrder = orderRepository.saveAndFlush(Order.builder()
+                .products(Arrays.asList(UUID.randomUUID()))
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("50.00"))
+                .build());
+        OrderStatus readStatus = savedOrder.getStatus();
+        // Otra peticion cancela la orden despues de la lectura
+        orderRepository.transitionStatus(savedOrder.getId(), OrderStatus.CANCELLED, OrderStatus.CANCELLED.allowedPredecessors());
+
+        // Act
+        int updated = orderRepository.updateIfStatus(savedOrder.getId(), readStatus, savedOrder.getProducts(),
+                OrderStatus.PROCESSING, new BigDecimal("80.00"), null);
+
+        // Assert
+        assertThat(updated).isZero();
+        Order current = orderRepository.findById(savedOrder.getId()).orElseThrow();
+        assertThat(current.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(current.getTotalAmount()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void updateIfStatus_WithUnchangedStatus_ShouldWriteAllFields() {
+        // Arrange
+        Order savedOrder = orderRepository.saveAndFlush(Order.builder()
+                .products(Arrays.asList(UUID.randomUUID()))
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("50.00"))
+                .build());
+        List<UUID> products = List.of(UUID.randomUUID(), UUID.randomUUID());
+        UUID paymentId = UUID.randomUUID();
+
+        // Act
+        int updated = orderRepository.updateIfStatus(savedOrder.getId(), OrderStatus.PENDING, products,
+                OrderStatus.PROCESSING, new BigDecimal("80.00"), paymentId);
+
+        // Assert
+        assertThat(updated).isEqualTo(1);
+        Order current = orderRepository.findById(savedOrder.getId()).orElseThrow();
+        assertThat(current.getStatus()).isEqualTo(OrderStatus.PROCESSING);
+        assertThat(current.getProducts()).containsExactlyElementsOf(products);
+        assertThat(current.getTotalAmount()).isEqualByComparingTo("80.00");
+        assertThat(current.getPaymentId()).isEqualTo(paymentId);
+    }
+}
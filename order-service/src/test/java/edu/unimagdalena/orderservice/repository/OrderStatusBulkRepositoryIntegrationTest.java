@@ -0,0 +1,102 @@
+package edu.unimagdalena.orderservice.repository;
+
+import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El UPDATE ... FROM unnest contra Postgres real: el test con JdbcTemplate mockeado no ejecuta el SQL.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderStatusBulkRepository.class)
+class OrderStatusBulkRepositoryIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusBulkRepository bulkRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void applyTransitions_WithMixedBatch_ShouldApplyOnlyValidFirstOccurrences() {
+        // Arrange
+        UUID applied = saveOrder(OrderStatus.PENDING);
+        UUID staleExpected = saveOrder(OrderStatus.SHIPPED);
+        UUID invalidTransition = saveOrder(OrderStatus.PENDING);
+        UUID missing = UUID.randomUUID();
+        List<StatusTransition> batch = List.of(
+                new StatusTransition(applied, OrderStatus.PENDING, OrderStatus.PROCESSING),
+                new StatusTransition(staleExpected, OrderStatus.PENDING, OrderStatus.PROCESSING),
+                new StatusTransition(invalidTransition, OrderStatus.PENDING, OrderStatus.DELIVERED),
+                new StatusTransition(missing, OrderStatus.PENDING, OrderStatus.PROCESSING),
+                // Duplicada: solo cuenta la primera aparicion de la orden en el lote
+                new StatusTransition(applied, OrderStatus.PENDING, OrderStatus.CANCELLED));
+
+        // Act
+        List<StatusTransitionResult> results = bulkRepository.applyTransitions(batch);
+        // El UPDATE va por JDBC: se descartan las entidades en memoria para leer lo que quedo en la tabla
+        entityManager.clear();
+
+        // Assert
+        assertThat(results).containsExactly(
+                new StatusTransitionResult(applied, true, OrderStatus.PROCESSING),
+                new StatusTransitionResult(staleExpected, false, OrderStatus.SHIPPED),
+                new StatusTransitionResult(invalidTransition, false, OrderStatus.PENDING),
+                new StatusTransitionResult(missing, false, null),
+                new StatusTransitionResult(applied, false, OrderStatus.PROCESSING));
+        assertThat(statusOf(applied)).isEqualTo(OrderStatus.PROCESSING);
+        assertThat(statusOf(staleExpected)).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(statusOf(invalidTransition)).isEqualTo(OrderStatus.PENDING);
+        assertThat(orderRepository.existsById(missing)).isFalse();
+    }
+
+    private UUID saveOrder(OrderStatus status) {
+        return orderRepository.saveAndFlush(Order.builder()
+                .products(List.of(UUID.randomUUID()))
+                .orderDate(LocalDateTime.now())
+                .status(status)
+                .totalAmount(new BigDecimal("10.00"))
+                .build()).getId();
+    }
+
+    private OrderStatus statusOf(UUID id) {
+        return orderRepository.findById(id).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,95 @@
+package edu.unimagdalena.orderservice.repository;
+
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusBulkRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private OrderStatusBulkRepository repository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyTransitions_WhenAllApplied_ShouldSkipCurrentStatusQuery() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenReturn(List.of(second, first));
+
+        // Act
+        List<StatusTransitionResult> results = repository.applyTransitions(List.of(
+                new StatusTransition(first, OrderStatus.PENDING, OrderStatus.PROCESSING),
+                new StatusTransition(second, OrderStatus.SHIPPED, OrderStatus.DELIVERED)));
+
+        // Assert
+        assertThat(results).containsExactly(
+                new StatusTransitionResult(first, true, OrderStatus.PROCESSING),
+                new StatusTransitionResult(second, true, OrderStatus.DELIVERED));
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowMapper.class));
+        verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void toResults_ShouldReportRejectedMissingAndDuplicateTransitions() {
+        // Arrange
+        UUID applied = UUID.randomUUID();
+        UUID rejected = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        List<StatusTransition> transitions = List.of(
+                new StatusTransition(applied, OrderStatus.PENDING, OrderStatus.PROCESSING),
+                new StatusTransition(rejected, OrderStatus.PENDING, OrderStatus.PROCESSING),
+                new StatusTransition(missing, OrderStatus.PENDING, OrderStatus.PROCESSING),
+                new StatusTransition(applied, OrderStatus.PROCESSING, OrderStatus.SHIPPED));
+
+        // Act
+        List<StatusTransitionResult> results = OrderStatusBulkRepository.toResults(transitions, Set.of(applied),
+                Map.of(applied, OrderStatus.PROCESSING, rejected, OrderStatus.CANCELLED));
+
+        // Assert
+        assertThat(results).containsExactly(
+                new StatusTransitionResult(applied, true, OrderStatus.PROCESSING),
+                new StatusTransitionResult(rejected, false, OrderStatus.CANCELLED),
+                new StatusTransitionResult(missing, false, null),
+                new StatusTransitionResult(applied, false, OrderStatus.PROCESSING));
+    }
+
+    @Test
+    void applyTransitions_WithIncompleteOrOversizedBatch_ShouldThrowIllegalArgument() {
+        // Arrange
+        List<StatusTransition> incomplete = List.of(new StatusTransition(UUID.randomUUID(), null, OrderStatus.SHIPPED));
+        List<StatusTransition> oversized = new ArrayList<>(Collections.nCopies(OrderStatusBulkRepository.MAX_BATCH_SIZE + 1,
+                new StatusTransition(UUID.randomUUID(), OrderStatus.PENDING, OrderStatus.PROCESSING)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> repository.applyTransitions(incomplete)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> repository.applyTransitions(oversized)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,124 @@
+package edu.unimagdalena.orderservice.repository;
+
+import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.OrderStatusEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * La sentencia con CTE (INSERT ... ON CONFLICT + UPDATE condicional) contra Postgres real.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderStatusEventRepository.class)
+class OrderStatusEventRepositoryIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusEventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @Test
+    void apply_WithBatch_ShouldApplyLatestValidEventPerOrder() {
+        // Arrange
+        UUID pending = saveOrder(OrderStatus.PENDING);
+        UUID cancelled = saveOrder(OrderStatus.CANCELLED);
+        List<OrderStatusEvent> events = List.of(
+                event(pending, OrderStatus.PROCESSING, now.minusMinutes(2)),
+                event(pending, OrderStatus.CANCELLED, now.minusMinutes(1)),
+                // CANCELLED -> PROCESSING no lo admite la maquina de estados
+                event(cancelled, OrderStatus.PROCESSING, now));
+
+        // Act
+        List<UUID> updated = eventRepository.apply(events);
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).containsExactly(pending);
+        assertThat(statusOf(pending)).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(statusOf(cancelled)).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(eventCount(pending)).isEqualTo(2);
+        assertThat(eventCount(cancelled)).isEqualTo(1);
+    }
+
+    @Test
+    void apply_WithRedeliveredAndOutOfOrderEvents_ShouldNotApplyThem() {
+        // Arrange
+        UUID orderId = saveOrder(OrderStatus.PENDING);
+        OrderStatusEvent processing = event(orderId, OrderStatus.PROCESSING, now);
+        eventRepository.apply(List.of(processing));
+
+        // Act: el mismo evento reenviado y uno anterior que llega tarde
+        List<UUID> updated = eventRepository.apply(List.of(
+                processing,
+                event(orderId, OrderStatus.CANCELLED, now.minusMinutes(5))));
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).isEmpty();
+        assertThat(statusOf(orderId)).isEqualTo(OrderStatus.PROCESSING);
+        assertThat(eventCount(orderId)).isEqualTo(2);
+    }
+
+    private OrderStatusEvent event(UUID orderId, OrderStatus status, LocalDateTime occurredAt) {
+        return new OrderStatusEvent(UUID.randomUUID(), orderId, status, occurredAt, null);
+    }
+
+    private UUID saveOrder(OrderStatus status) {
+        return orderRepository.saveAndFlush(Order.builder()
+                .products(List.of(UUID.randomUUID()))
+                .orderDate(now)
+                .status(status)
+                .totalAmount(new BigDecimal("10.00"))
+                .build()).getId();
+    }
+
+    private OrderStatus statusOf(UUID id) {
+        return orderRepository.findById(id).orElseThrow().getStatus();
+    }
+
+    private Integer eventCount(UUID orderId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM order_status_events WHERE order_id = ?", Integer.class, orderId);
+    }
+}
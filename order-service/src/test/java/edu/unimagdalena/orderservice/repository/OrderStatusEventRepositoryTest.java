@@ -0,0 +1,75 @@
+package edu.unimagdalena.orderservice.repository;
+
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.OrderStatusEvent;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusEventRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private OrderStatusEventRepository repository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void apply_ShouldRunSingleStatementForWholeBatch() {
+        // Arrange
+        List<OrderStatusEvent> events = List.of(
+                new OrderStatusEvent(UUID.randomUUID(), UUID.randomUUID(), OrderStatus.DELIVERED, LocalDateTime.now(), null),
+                new OrderStatusEvent(UUID.randomUUID(), UUID.randomUUID(), OrderStatus.CANCELLED, LocalDateTime.now(), null));
+        List<StatusTransitionResult> results = List.of(
+                new StatusTransitionResult(events.get(0).getOrderId(), true, OrderStatus.DELIVERED),
+                new StatusTransitionResult(events.get(1).getOrderId(), false, OrderStatus.DELIVERED));
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(results);
+
+        // Act
+        List<UUID> updated = repository.apply(events);
+
+        // Assert: solo las ordenes que cambiaron, no las rechazadas por la maquina de estados
+        assertThat(updated).containsExactly(events.get(0).getOrderId());
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowMapper.class));
+    }
+
+    @Test
+    void toResult_WhenRejected_ShouldKeepPreviousStatus() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+
+        // Act
+        StatusTransitionResult result = OrderStatusEventRepository.toResult(orderId, "PROCESSING", "CANCELLED", false);
+
+        // Assert
+        assertThat(result).isEqualTo(new StatusTransitionResult(orderId, false, OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void apply_WithIncompleteEvent_ShouldThrowIllegalArgument() {
+        // Arrange
+        List<OrderStatusEvent> events = List.of(
+                new OrderStatusEvent(null, UUID.randomUUID(), OrderStatus.DELIVERED, LocalDateTime.now(), null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> repository.apply(events)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,83 @@
+package edu.unimagdalena.orderservice.service;
+
+import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BlockingOrderServiceAdapterTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private Scheduler jpaScheduler;
+    private BlockingOrderServiceAdapter adapter;
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        jpaScheduler = Schedulers.newBoundedElastic(2, 100, "jpa");
+        adapter = new BlockingOrderServiceAdapter(orderService, jpaScheduler);
+        orderId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jpaScheduler.dispose();
+    }
+
+    @Test
+    void getOrderById_ShouldRunLazilyOnJpaScheduler() {
+        // Arrange
+        Order order = Order.builder().id(orderId).status(OrderStatus.PENDING).build();
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(orderService.getOrderById(orderId)).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return Optional.of(order);
+        });
+
+        // Act
+        Mono<Order> result = adapter.getOrderById(orderId);
+
+        // Assert
+        verifyNoInteractions(orderService);
+        StepVerifier.create(result).expectNext(order).verifyComplete();
+        assertThat(thread.get()).startsWith("jpa");
+    }
+
+    @Test
+    void updateOrderStatus_WithNonExistingId_ShouldCompleteEmpty() {
+        // Arrange
+        when(orderService.updateOrderStatus(orderId, OrderStatus.SHIPPED)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        StepVerifier.create(adapter.updateOrderStatus(orderId, OrderStatus.SHIPPED)).verifyComplete();
+    }
+
+    @Test
+    void deleteOrder_ShouldDeleteOnlyWhenSubscribed() {
+        // Act
+        Mono<Void> result = adapter.deleteOrder(orderId);
+
+        // Assert
+        verifyNoInteractions(orderService);
+        StepVerifier.create(result).verifyComplete();
+        verify(orderService).deleteOrder(orderId);
+    }
+}
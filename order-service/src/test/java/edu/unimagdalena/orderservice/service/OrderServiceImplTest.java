@@ -1,15 +1,28 @@
 package edu.unimagdalena.orderservice.service;
 
 import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderPage;
 import edu.unimagdalena.orderservice.model.OrderStatus;
+import edu.unimagdalena.orderservice.model.StatusTransition;
+import edu.unimagdalena.orderservice.model.StatusTransitionResult;
 import edu.unimagdalena.orderservice.repository.OrderRepository;
+import edu.unimagdalena.orderservice.repository.OrderStatusBulkRepository;
 import edu.unimagdalena.orderservice.service.OrderServiceImpl;
+import edu.unimagdalena.orderservice.service.pagination.OrderCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,8 +30,10 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -27,6 +42,10 @@ public class OrderServiceImplTest {
 
     @Mock
     private OrderRepository orderRepository;
+    @Mock
+    private OrderStatusBulkRepository orderStatusBulkRepository;
+    @Mock
+    private CacheManager cacheManager;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -132,8 +151,11 @@ public class OrderServiceImplTest {
                 .totalAmount(new BigDecimal("150.00"))
                 .build();
 
+        // PROCESSING -> SHIPPED es una transicion valida
+        order.setStatus(OrderStatus.PROCESSING);
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
+        when(orderRepository.updateIfStatus(orderId, OrderStatus.PROCESSING, updatedOrder.getProducts(),
+                OrderStatus.SHIPPED, new BigDecimal("150.00"), null)).thenReturn(1);
 
         // Act
         Optional<Order> result = orderService.updateOrder(orderId, orderToUpdate);
@@ -143,7 +165,59 @@ public class OrderServiceImplTest {
         assertThat(result.get().getStatus()).isEqualTo(OrderStatus.SHIPPED);
         assertThat(result.get().getTotalAmount()).isEqualTo(new BigDecimal("150.00"));
         verify(orderRepository, times(1)).findById(orderId);
-        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderRepository, times(1)).updateIfStatus(orderId, OrderStatus.PROCESSING, updatedOrder.getProducts(),
+                OrderStatus.SHIPPED, new BigDecimal("150.00"), null);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void updateOrder_WithInvalidTransition_ShouldThrowWithoutSaving() {
+        // Arrange
+        Order orderToUpdate = Order.builder()
+                .status(OrderStatus.DELIVERED)
+                .build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.updateOrder(orderId, orderToUpdate))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        verify(orderRepository, never()).updateIfStatus(any(), any(), any(), any(), any(), any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void updateOrder_WhenStatusChangedConcurrently_ShouldThrowWithoutSaving() {
+        // Arrange
+        Order orderToUpdate = Order.builder()
+                .status(OrderStatus.PROCESSING)
+                .build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        // Otra peticion cambio el estado despues de la lectura: el UPDATE condicional no encuentra la fila
+        when(orderRepository.updateIfStatus(orderId, OrderStatus.PENDING, order.getProducts(),
+                OrderStatus.PROCESSING, order.getTotalAmount(), order.getPaymentId())).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.updateOrder(orderId, orderToUpdate))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void updateOrder_WhenStatusChangedConcurrentlyWithoutStatusInRequest_ShouldNotOverwriteIt() {
+        // Arrange
+        Order orderToUpdate = Order.builder()
+                .totalAmount(new BigDecimal("80.00"))
+                .build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        // Entre la lectura (PENDING) y la escritura otra peticion movio la orden a CANCELLED:
+        // la escritura va condicionada al estado leido y no pisa el cambio
+        when(orderRepository.updateIfStatus(orderId, OrderStatus.PENDING, order.getProducts(),
+                OrderStatus.PENDING, new BigDecimal("80.00"), order.getPaymentId())).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.updateOrder(orderId, orderToUpdate))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
@@ -178,8 +252,8 @@ public class OrderServiceImplTest {
                 .totalAmount(order.getTotalAmount())
                 .build();
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
+        when(orderRepository.transitionStatus(orderId, newStatus, newStatus.allowedPredecessors())).thenReturn(1);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(updatedOrder));
 
         // Act
         Optional<Order> result = orderService.updateOrderStatus(orderId, newStatus);
@@ -187,8 +261,23 @@ public class OrderServiceImplTest {
         // Assert
         assertThat(result).isPresent();
         assertThat(result.get().getStatus()).isEqualTo(newStatus);
+        verify(orderRepository, times(1)).transitionStatus(orderId, newStatus, newStatus.allowedPredecessors());
         verify(orderRepository, times(1)).findById(orderId);
-        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void updateOrderStatus_WithInvalidTransition_ShouldThrow() {
+        // Arrange
+        order.setStatus(OrderStatus.CANCELLED);
+        when(orderRepository.transitionStatus(orderId, OrderStatus.SHIPPED, OrderStatus.SHIPPED.allowedPredecessors())).thenReturn(0);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.updateOrderStatus(orderId, OrderStatus.SHIPPED))
+                .isInstanceOf(InvalidStatusTransitionException.class)
+                .hasMessageContaining("CANCELLED");
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
@@ -216,5 +305,72 @@ public class OrderServiceImplTest {
         // Assert
         verify(orderRepository, times(1)).deleteById(orderId);
     }
-}
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void getOrderPage_WithCursor_ShouldScrollFromCursorAndReturnNextCursor() {
+        // Arrange
+        Order older = Order.builder().id(UUID.randomUUID()).orderDate(order.getOrderDate().minusDays(1)).build();
+        Window<Order> window = Window.from(List.of(order, older), index -> ScrollPosition.keyset(), true);
+        FluentQuery.FetchableFluentQuery<Order> query = mock(FluentQuery.FetchableFluentQuery.class);
+        when(query.sortBy(any())).thenReturn(query);
+        when(query.limit(2)).thenReturn(query);
+        ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+        when(query.scroll(position.capture())).thenReturn(window);
+        when(orderRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<FluentQuery.FetchableFluentQuery<Order>, Window<Order>>>getArgument(1).apply(query));
+        LocalDateTime cursorDate = order.getOrderDate().plusDays(1);
+        UUID cursorId = UUID.randomUUID();
+        String cursor = new OrderCursor(cursorDate, cursorId).encode();
+
+        // Act
+        OrderPage result = orderService.getOrderPage(OrderStatus.PENDING, null, null, cursor, 2);
+
+        // Assert
+        assertThat(result.getItems()).containsExactly(order, older);
+        assertThat(OrderCursor.decode(result.getNextCursor()).id()).isEqualTo(older.getId());
+        KeysetScrollPosition keyset = (KeysetScrollPosition) position.getValue();
+        assertThat(keyset.getKeys()).containsEntry("orderDate", cursorDate).containsEntry("id", cursorId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getOrderPage_OnLastPage_ShouldReturnNullCursor() {
+        // Arrange
+        FluentQuery.FetchableFluentQuery<Order> query = mock(FluentQuery.FetchableFluentQuery.class);
+        when(query.sortBy(any())).thenReturn(query);
+        when(query.limit(20)).thenReturn(query);
+        when(query.scroll(any())).thenReturn(Window.from(List.of(order), index -> ScrollPosition.keyset(), false));
+        when(orderRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<FluentQuery.FetchableFluentQuery<Order>, Window<Order>>>getArgument(1).apply(query));
+
+        // Act
+        OrderPage result = orderService.getOrderPage(null, null, null, null, 20);
+
+        // Assert
+        assertThat(result.getItems()).containsExactly(order);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void updateOrderStatuses_ShouldEvictOnlyAppliedOrdersFromCache() {
+        // Arrange
+        UUID rejectedId = UUID.randomUUID();
+        List<StatusTransition> transitions = List.of(
+                new StatusTransition(orderId, OrderStatus.PENDING, OrderStatus.PROCESSING),
+                new StatusTransition(rejectedId, OrderStatus.PENDING, OrderStatus.PROCESSING));
+        when(orderStatusBulkRepository.applyTransitions(transitions)).thenReturn(List.of(
+                new StatusTransitionResult(orderId, true, OrderStatus.PROCESSING),
+                new StatusTransitionResult(rejectedId, false, OrderStatus.CANCELLED)));
+        Cache cache = mock(Cache.class);
+        when(cacheManager.getCache("order-cache")).thenReturn(cache);
+
+        // Act
+        List<StatusTransitionResult> results = orderService.updateOrderStatuses(transitions);
+
+        // Assert
+        assertThat(results).hasSize(2);
+        verify(cache, times(1)).evict(orderId);
+        verify(cache, never()).evict(rejectedId);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.unimagdalena.orderservice.service;
+
+import edu.unimagdalena.orderservice.config.CacheConfig;
+import edu.unimagdalena.orderservice.controller.OrderController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cache de ordenes con el proxy real de Spring sobre R2dbcOrderService. La cache no admite nulos,
+ * igual que ORDER_CACHE con disableCachingNullValues().
+ */
+@SpringJUnitConfig
+class R2dbcOrderServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ORDER_CACHE);
+            cacheManager.setAllowNullValues(false);
+            return cacheManager;
+        }
+
+        @Bean
+        DatabaseClient databaseClient() {
+            return mock(DatabaseClient.class, RETURNS_DEEP_STUBS);
+        }
+
+        @Bean
+        R2dbcOrderService r2dbcOrderService(DatabaseClient databaseClient, CacheManager cacheManager) {
+            return new R2dbcOrderService(databaseClient, cacheManager);
+        }
+    }
+
+    @Autowired
+    private ReactiveOrderService orderService;
+    @Autowired
+    private DatabaseClient databaseClient;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getOrderById_WithMissingOrder_ShouldReturnNotFoundAndNotCache() {
+        // Arrange
+        UUID missingId = UUID.randomUUID();
+        when(databaseClient.sql(anyString()).bind(anyString(), any()).map(any(Function.class)).one())
+                .thenReturn(Mono.empty());
+        WebTestClient client = WebTestClient.bindToController(new OrderController(orderService)).build();
+
+        // Act & Assert
+        client.get()
+                .uri("/{id}", missingId)
+                .exchange()
+                .expectStatus().isNotFound();
+        assertThat(cacheManager.getCache(CacheConfig.ORDER_CACHE).get(missingId)).isNull();
+    }
+}
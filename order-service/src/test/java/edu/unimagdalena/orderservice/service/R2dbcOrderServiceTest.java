@@ -0,0 +1,55 @@
+package edu.unimagdalena.orderservice.service;
+
+import edu.unimagdalena.orderservice.model.Order;
+import edu.unimagdalena.orderservice.model.OrderStatus;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class R2dbcOrderServiceTest {
+
+    @Test
+    void toOrder_ShouldMapAggregatedRow() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        LocalDateTime orderDate = LocalDateTime.of(2025, 3, 1, 10, 30);
+        Readable row = mock(Readable.class);
+        when(row.get("id", UUID.class)).thenReturn(orderId);
+        when(row.get("order_date", LocalDateTime.class)).thenReturn(orderDate);
+        when(row.get("status", String.class)).thenReturn("SHIPPED");
+        when(row.get("total_amount", BigDecimal.class)).thenReturn(new BigDecimal("100.00"));
+        when(row.get("products", UUID[].class)).thenReturn(new UUID[]{productId});
+
+        // Act
+        Order order = R2dbcOrderService.toOrder(row);
+
+        // Assert
+        assertThat(order.getId()).isEqualTo(orderId);
+        assertThat(order.getOrderDate()).isEqualTo(orderDate);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("100.00");
+        assertThat(order.getPaymentId()).isNull();
+        assertThat(order.getProducts()).containsExactly(productId);
+    }
+
+    @Test
+    void toOrder_WithoutProducts_ShouldReturnEmptyList() {
+        // Arrange
+        Readable row = mock(Readable.class);
+        when(row.get("id", UUID.class)).thenReturn(UUID.randomUUID());
+
+        // Act
+        Order order = R2dbcOrderService.toOrder(row);
+
+        // Assert
+        assertThat(order.getStatus()).isNull();
+        assertThat(order.getProducts()).isEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package edu.unimagdalena.orderservice.service.pagination;
+
+import edu.unimagdalena.orderservice.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCursorTest {
+
+    @Test
+    void encode_ThenDecode_ShouldReturnSamePosition() {
+        // Arrange
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .orderDate(LocalDateTime.of(2024, 3, 15, 10, 30, 12, 123456000))
+                .build();
+
+        // Act
+        OrderCursor decoded = OrderCursor.decode(OrderCursor.of(order).encode());
+
+        // Assert
+        assertThat(decoded.orderDate()).isEqualTo(order.getOrderDate());
+        assertThat(decoded.id()).isEqualTo(order.getId());
+    }
+
+    @Test
+    void decode_WithMalformedCursor_ShouldThrowIllegalArgument() {
+        // Act & Assert
+        assertThatThrownBy(() -> OrderCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
@@ -0,0 +1,26 @@
+package edu.unimagdalena.paymentservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento tal como lo recibe order-service en POST /status/events.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEvent {
+
+    private UUID eventId;
+    private UUID orderId;
+    private OrderStatus status;
+    private LocalDateTime occurredAt;
+
+    public static OrderStatusEvent from(OutboxEvent event) {
+        return new OrderStatusEvent(event.getId(), event.getOrderId(), event.getOrderStatus(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,41 @@
+package edu.unimagdalena.paymentservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cambio de estado de orden pendiente de enviar a order-service. Se guarda en la misma transaccion
+ * que el pago y el relay lo borra una vez entregado, asi la tabla solo contiene lo pendiente.
+ */
+@Entity
+@Table(name = "payment_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    // Tambien es la clave de idempotencia en order-service
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
+
+    private LocalDateTime createdAt;
+
+    // Reclamo del relay que lo esta enviando; uno vencido se vuelve a reclamar (el relay pudo caerse)
+    private LocalDateTime claimedAt;
+
+    // Envios intentados; null en los eventos anteriores a la columna
+    private Integer attempts;
+}
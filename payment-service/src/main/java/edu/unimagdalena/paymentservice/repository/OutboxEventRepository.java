@@ -0,0 +1,36 @@
+package edu.unimagdalena.paymentservice.repository;
+
+import edu.unimagdalena.paymentservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    // SKIP LOCKED: varias replicas pueden relevar a la vez sin tomar los mismos eventos.
+    // Solo los no reclamados o con el reclamo vencido antes de expiredBefore
+    @Query(value = """
+            SELECT * FROM payment_outbox
+            WHERE claimed_at IS NULL OR claimed_at < :expiredBefore
+            ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit, @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedAt = :claimedAt, e.attempts = COALESCE(e.attempts, 0) + 1 WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<UUID> ids, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedAt = NULL WHERE e.id IN :ids")
+    int releaseClaims(@Param("ids") Collection<UUID> ids);
+}
@@ -3,6 +3,7 @@ package edu.unimagdalena.paymentservice.service;
 import edu.unimagdalena.paymentservice.controller.PaymentController;
 import edu.unimagdalena.paymentservice.model.Order;
 import edu.unimagdalena.paymentservice.model.OrderStatus;
+import edu.unimagdalena.paymentservice.model.OrderStatusEvent;
 import io.micrometer.tracing.CurrentTraceContext;
 import io.micrometer.tracing.TraceContext;
 import org.slf4j.Logger;
@@ -15,6 +16,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.util.context.Context;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -48,4 +50,17 @@ public class OrderServiceClient {
                 .retrieve()
                 .bodyToMono(Order.class);
     }
+
+    /**
+     * Lote de cambios de estado del outbox. order-service los aplica de forma idempotente por eventId.
+     */
+    public Mono<Void> publishStatusEvents(List<OrderStatusEvent> events) {
+        return webClient.post()
+                .uri("/status/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(events)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
 }
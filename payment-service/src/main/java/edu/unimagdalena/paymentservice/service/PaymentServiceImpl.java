@@ -2,8 +2,10 @@ package edu.unimagdalena.paymentservice.service;
 
 import edu.unimagdalena.paymentservice.model.Order;
 import edu.unimagdalena.paymentservice.model.OrderStatus;
+import edu.unimagdalena.paymentservice.model.OutboxEvent;
 import edu.unimagdalena.paymentservice.model.Payment;
 import edu.unimagdalena.paymentservice.model.PaymentStatus;
+import edu.unimagdalena.paymentservice.repository.OutboxEventRepository;
 import edu.unimagdalena.paymentservice.repository.PaymentRepository;
 import edu.unimagdalena.paymentservice.service.PaymentService;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +13,7 @@ import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -31,6 +34,8 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final OrderServiceClient orderServiceClient;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public List<Payment> getAllPayments() {
@@ -67,12 +72,10 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     @CachePut(value = PAYMENT_CACHE, key = "#id")
     public Mono<Payment> updatePayment(UUID id, Payment paymentDetails) {
-        UUID orderId = paymentDetails.getOrderId();
-
-        return orderServiceClient.getOrderById(orderId)
-                .flatMap(order -> Mono.justOrEmpty(paymentRepository.findById(id))
-                        .publishOn(Schedulers.boundedElastic())
-                        .flatMap(existingPayment -> {
+        // Una sola transaccion local: el pago y, si corresponde, el evento de outbox para order-service.
+        // El estado de la orden se propaga despues de forma asincrona (OutboxRelay)
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> paymentRepository.findById(id)
+                        .map(existingPayment -> {
                             // Actualizar campos
                             if (paymentDetails.getPaymentMethod() != null) {
                                 existingPayment.setPaymentMethod(paymentDetails.getPaymentMethod());
@@ -80,32 +83,33 @@ public class PaymentServiceImpl implements PaymentService {
                             if (paymentDetails.getAmount() != null) {
                                 existingPayment.setAmount(paymentDetails.getAmount());
                             }
-
+                            if (paymentDetails.getOrderId() != null) {
+                                existingPayment.setOrderId(paymentDetails.getOrderId());
+                            }
                             if (paymentDetails.getPaymentStatus() != null) {
                                 existingPayment.setPaymentStatus(paymentDetails.getPaymentStatus());
-
-                                // Guardar primero el payment
-                                Payment savedPayment = paymentRepository.save(existingPayment);
-
-                                // Luego actualizar el order status reactivamente
-                                return updateOrderStatusBasedOnPayment(orderId, paymentDetails.getPaymentStatus())
-                                        .then(Mono.just(savedPayment)); // Retornar el payment guardado
+                                OrderStatus orderStatus = orderStatusFor(paymentDetails.getPaymentStatus());
+                                if (orderStatus != null && existingPayment.getOrderId() != null) {
+                                    outboxEventRepository.save(OutboxEvent.builder()
+                                            .orderId(existingPayment.getOrderId())
+                                            .orderStatus(orderStatus)
+                                            .createdAt(LocalDateTime.now())
+                                            .build());
+                                }
                             }
-
-                            return Mono.just(paymentRepository.save(existingPayment));
+                            return paymentRepository.save(existingPayment);
                         })
-                        .switchIfEmpty(Mono.error(new RuntimeException("Payment not found")))
-                )
-                .switchIfEmpty(Mono.error(new RuntimeException("Order not found")));
+                        .orElse(null)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.error(new RuntimeException("Payment not found")));
     }
 
-    private Mono<Void> updateOrderStatusBasedOnPayment(UUID orderId, PaymentStatus paymentStatus) {
+    private static OrderStatus orderStatusFor(PaymentStatus paymentStatus) {
         return switch (paymentStatus) {
-            case COMPLETED -> orderServiceClient.updateOrderStatus(orderId, OrderStatus.DELIVERED)
-                    .then(); // Convertir a Mono<Void>
-            case REFUNDED -> orderServiceClient.updateOrderStatus(orderId, OrderStatus.CANCELLED)
-                    .then();
-            default -> Mono.empty(); // No hacer nada para otros estados
+            // Pago confirmado: la orden pasa a preparacion (order-service no admite PENDING -> DELIVERED)
+            case COMPLETED -> OrderStatus.PROCESSING;
+            case REFUNDED -> OrderStatus.CANCELLED;
+            default -> null; // No hacer nada para otros estados
         };
     }
 
@@ -0,0 +1,133 @@
+package edu.unimagdalena.paymentservice.service.outbox;
+
+import edu.unimagdalena.paymentservice.model.OrderStatusEvent;
+import edu.unimagdalena.paymentservice.model.OutboxEvent;
+import edu.unimagdalena.paymentservice.repository.OutboxEventRepository;
+import edu.unimagdalena.paymentservice.service.OrderServiceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envia el outbox a order-service por lotes. Entrega al menos una vez, en tres pasos:
+ * <ol>
+ *     <li>reclama el lote (claimed_at, attempts) en una transaccion corta,</li>
+ *     <li>lo envia fuera de toda transaccion, sin conexion ni bloqueos de fila retenidos durante la llamada HTTP,</li>
+ *     <li>y lo borra en una segunda transaccion cuando order-service lo confirma.</li>
+ * </ol>
+ * Si la llamada falla se libera el reclamo y el lote se reintenta en la siguiente pasada; si el relay
+ * cae a mitad, el reclamo vence y otra pasada lo toma. order-service descarta los repetidos por su id.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderServiceClient orderServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration deliveryTimeout;
+    private final Duration claimTimeout;
+
+    private final Timer deliveryLag;
+    private final Counter deliveredEvents;
+    private final Counter failedBatches;
+    // Antiguedad del evento pendiente mas viejo visto en la ultima pasada; 0 si el outbox esta vacio
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OrderServiceClient orderServiceClient,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${payment.outbox.batch-size:500}") int batchSize,
+                       @Value("${payment.outbox.delivery-timeout-ms:5000}") long deliveryTimeoutMillis,
+                       @Value("${payment.outbox.claim-timeout-ms:30000}") long claimTimeoutMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderServiceClient = orderServiceClient;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.deliveryTimeout = Duration.ofMillis(deliveryTimeoutMillis);
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMillis);
+        this.deliveryLag = Timer.builder("payment.outbox.delivery.lag")
+                .description("Tiempo desde que se guarda el evento hasta que order-service lo confirma")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.deliveredEvents = meterRegistry.counter("payment.outbox.delivered");
+        this.failedBatches = meterRegistry.counter("payment.outbox.failures");
+        Gauge.builder("payment.outbox.lag", oldestPendingMillis, millis -> millis.get() / 1000.0)
+                .description("Antiguedad del evento pendiente mas viejo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            // Lotes completos indican que queda mas pendiente: se sigue sin esperar al siguiente tick
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            logger.warn("Outbox relay failed, events will be retried: {}", e.getMessage());
+        }
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimNextBatch());
+        if (batch == null || batch.isEmpty()) {
+            oldestPendingMillis.set(0);
+            return 0;
+        }
+        oldestPendingMillis.set(Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+        List<UUID> ids = batch.stream().map(OutboxEvent::getId).toList();
+
+        try {
+            orderServiceClient.publishStatusEvents(batch.stream().map(OrderStatusEvent::from).toList())
+                    .block(deliveryTimeout);
+        } catch (RuntimeException e) {
+            releaseClaims(ids);
+            throw e;
+        }
+        outboxEventRepository.deleteAllByIdInBatch(ids);
+
+        LocalDateTime deliveredAt = LocalDateTime.now();
+        batch.forEach(event -> deliveryLag.record(Duration.between(event.getCreatedAt(), deliveredAt)));
+        deliveredEvents.increment(batch.size());
+        return batch.size();
+    }
+
+    // Los bloqueos de fila solo duran el SELECT ... FOR UPDATE y el UPDATE del reclamo
+    private List<OutboxEvent> claimNextBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize, now.minus(claimTimeout));
+        if (!batch.isEmpty()) {
+            outboxEventRepository.claim(batch.stream().map(OutboxEvent::getId).toList(), now);
+        }
+        return batch;
+    }
+
+    // Reintento en la siguiente pasada sin esperar a que venza el reclamo; si esto tambien falla, vencera
+    private void releaseClaims(List<UUID> ids) {
+        try {
+            outboxEventRepository.releaseClaims(ids);
+        } catch (RuntimeException e) {
+            logger.warn("Could not release outbox claims, they will expire in {}: {}", claimTimeout, e.getMessage());
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package edu.unimagdalena.paymentservice.service;
 
 import edu.unimagdalena.paymentservice.model.Order;
+import edu.unimagdalena.paymentservice.model.OrderStatus;
+import edu.unimagdalena.paymentservice.model.OutboxEvent;
 import edu.unimagdalena.paymentservice.model.Payment;
 import edu.unimagdalena.paymentservice.model.PaymentMethod;
 import edu.unimagdalena.paymentservice.model.PaymentStatus;
+import edu.unimagdalena.paymentservice.repository.OutboxEventRepository;
 import edu.unimagdalena.paymentservice.repository.PaymentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -32,6 +38,10 @@ public class PaymentServiceImplTest {
     private PaymentRepository paymentRepository;
     @Mock
     private OrderServiceClient orderServiceClient;
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private PaymentServiceImpl paymentService;
@@ -236,10 +246,9 @@ public class PaymentServiceImplTest {
                 .paymentDate(payment.getPaymentDate())
                 .build();
 
-        when(orderServiceClient.getOrderById(orderId)).thenReturn(Mono.just(order));
+        runTransactionCallbacks();
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
         when(paymentRepository.save(any(Payment.class))).thenReturn(updatedPayment);
-        when(orderServiceClient.updateOrderStatus(any(UUID.class), any(edu.unimagdalena.paymentservice.model.OrderStatus.class))).thenReturn(Mono.just(new Order())); // Mock updateOrderStatus
 
         // Act
         Mono<Payment> result = paymentService.updatePayment(paymentId, paymentToUpdate);
@@ -248,10 +257,14 @@ public class PaymentServiceImplTest {
         StepVerifier.create(result)
                 .expectNext(updatedPayment)
                 .verifyComplete();
-        verify(orderServiceClient, times(1)).getOrderById(orderId);
         verify(paymentRepository, times(1)).findById(paymentId);
         verify(paymentRepository, times(1)).save(any(Payment.class));
-        verify(orderServiceClient, times(1)).updateOrderStatus(orderId, edu.unimagdalena.paymentservice.model.OrderStatus.CANCELLED); // REFUNDED maps to CANCELLED
+        // El estado de la orden va al outbox en la misma transaccion, sin llamar a order-service
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(event.capture());
+        assertThat(event.getValue().getOrderId()).isEqualTo(orderId);
+        assertThat(event.getValue().getOrderStatus()).isEqualTo(OrderStatus.CANCELLED); // REFUNDED maps to CANCELLED
+        verifyNoInteractions(orderServiceClient);
     }
 
     @Test
@@ -263,7 +276,7 @@ public class PaymentServiceImplTest {
                 .orderId(orderId) // Add orderId to paymentToUpdate
                 .build();
 
-        when(orderServiceClient.getOrderById(orderId)).thenReturn(Mono.just(order));
+        runTransactionCallbacks();
         when(paymentRepository.findById(nonExistingId)).thenReturn(Optional.empty());
 
         // Act
@@ -274,9 +287,9 @@ public class PaymentServiceImplTest {
                 .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
                         throwable.getMessage().equals("Payment not found"))
                 .verify();
-        verify(orderServiceClient, times(1)).getOrderById(orderId);
         verify(paymentRepository, times(1)).findById(nonExistingId);
         verify(paymentRepository, never()).save(any(Payment.class));
+        verify(outboxEventRepository, never()).save(any(OutboxEvent.class));
     }
 
     @Test
@@ -287,4 +300,29 @@ public class PaymentServiceImplTest {
         // Assert
         verify(paymentRepository, times(1)).deleteById(paymentId);
     }
+
+    @Test
+    void updatePayment_WithNonTerminalStatus_ShouldNotWriteOutboxEvent() {
+        // Arrange
+        Payment paymentToUpdate = Payment.builder()
+                .paymentStatus(PaymentStatus.FAILED)
+                .build();
+        runTransactionCallbacks();
+        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Mono<Payment> result = paymentService.updatePayment(paymentId, paymentToUpdate);
+
+        // Assert
+        StepVerifier.create(result)
+                .expectNextMatches(updated -> updated.getPaymentStatus() == PaymentStatus.FAILED)
+                .verifyComplete();
+        verifyNoInteractions(outboxEventRepository, orderServiceClient);
+    }
+
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
 }
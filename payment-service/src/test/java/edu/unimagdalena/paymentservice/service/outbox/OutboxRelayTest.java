@@ -0,0 +1,93 @@
+package edu.unimagdalena.paymentservice.service.outbox;
+
+import edu.unimagdalena.paymentservice.model.OrderStatus;
+import edu.unimagdalena.paymentservice.model.OrderStatusEvent;
+import edu.unimagdalena.paymentservice.model.OutboxEvent;
+import edu.unimagdalena.paymentservice.repository.OutboxEventRepository;
+import edu.unimagdalena.paymentservice.service.OrderServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private OrderServiceClient orderServiceClient;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+    private OutboxEvent event;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxEventRepository, orderServiceClient, transactionTemplate, meterRegistry, 2, 1000, 30000);
+        event = OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .orderStatus(OrderStatus.DELIVERED)
+                .createdAt(LocalDateTime.now().minusSeconds(3))
+                .build();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void relay_WhenOrderServiceAccepts_ShouldDeleteDeliveredEvents() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(eq(2), any(LocalDateTime.class))).thenReturn(List.of(event));
+        when(orderServiceClient.publishStatusEvents(List.of(OrderStatusEvent.from(event)))).thenReturn(Mono.empty());
+
+        // Act
+        relay.relay();
+
+        // Assert
+        InOrder inOrder = inOrder(transactionTemplate, outboxEventRepository, orderServiceClient);
+        // Reclamo dentro de la transaccion corta; envio y borrado despues de que termina
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(outboxEventRepository).claim(eq(List.of(event.getId())), any(LocalDateTime.class));
+        inOrder.verify(orderServiceClient).publishStatusEvents(anyList());
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(event.getId()));
+        assertThat(meterRegistry.get("payment.outbox.delivered").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.outbox.delivery.lag").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.outbox.lag").gauge().value()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void relay_WhenOrderServiceFails_ShouldKeepEventsForRetry() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(eq(2), any(LocalDateTime.class))).thenReturn(List.of(event));
+        when(orderServiceClient.publishStatusEvents(anyList())).thenReturn(Mono.error(new IllegalStateException("order-service down")));
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(outboxEventRepository).releaseClaims(List.of(event.getId()));
+        assertThat(meterRegistry.get("payment.outbox.failures").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.outbox.delivered").counter().count()).isZero();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -20,10 +21,15 @@ public class CacheConfig {
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-        cacheConfigurations.put(PRODUCT_CACHE, createConfig(Duration.ofMinutes(5)));
+        cacheConfigurations.put(PRODUCT_CACHE, createConfig(Duration.ofMinutes(5))
+                // Sin NullValue: los productos inexistentes no se cachean (unless en @Cacheable)
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new ProductCacheSerializer())));
 
         return RedisCacheManager.builder(redisConnectionFactory)
                 .withInitialCacheConfigurations(cacheConfigurations)
+                // Aciertos/fallos/puts/evictions como metricas cache.* en /actuator/prometheus
+                .enableStatistics()
                 .build();
     }
 
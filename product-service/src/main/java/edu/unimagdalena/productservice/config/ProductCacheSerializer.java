@@ -0,0 +1,94 @@
+package edu.unimagdalena.productservice.config;
+
+import edu.unimagdalena.productservice.model.Product;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Formato binario de {@link Product} para {@link CacheConfig#PRODUCT_CACHE}: version, mascara de
+ * campos presentes, strings en UTF modificado y el precio como escala + valor sin escala.
+ * Sin nombres de campo ni informacion de clase: un producto tipico ocupa unos 70 bytes.
+ */
+public class ProductCacheSerializer implements RedisSerializer<Product> {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_PRICE = 1 << 2;
+    private static final int HAS_CATEGORY = 1 << 3;
+
+    @Override
+    public byte[] serialize(Product product) {
+        if (product == null) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            int fields = (product.getId() != null ? HAS_ID : 0)
+                    | (product.getName() != null ? HAS_NAME : 0)
+                    | (product.getPrice() != null ? HAS_PRICE : 0)
+                    | (product.getCategory() != null ? HAS_CATEGORY : 0);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(fields);
+            if (product.getId() != null) {
+                out.writeUTF(product.getId());
+            }
+            if (product.getName() != null) {
+                out.writeUTF(product.getName());
+            }
+            if (product.getPrice() != null) {
+                byte[] unscaled = product.getPrice().unscaledValue().toByteArray();
+                out.writeInt(product.getPrice().scale());
+                out.writeByte(unscaled.length);
+                out.write(unscaled);
+            }
+            if (product.getCategory() != null) {
+                out.writeUTF(product.getCategory());
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize product " + product.getId(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public Product deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                // Entrada de otra version: se trata como fallo de cache y se vuelve a leer de Mongo
+                return null;
+            }
+            int fields = in.readByte();
+            Product product = new Product();
+            if ((fields & HAS_ID) != 0) {
+                product.setId(in.readUTF());
+            }
+            if ((fields & HAS_NAME) != 0) {
+                product.setName(in.readUTF());
+            }
+            if ((fields & HAS_PRICE) != 0) {
+                int scale = in.readInt();
+                byte[] unscaled = new byte[in.readUnsignedByte()];
+                in.readFully(unscaled);
+                product.setPrice(new BigDecimal(new BigInteger(unscaled), scale));
+            }
+            if ((fields & HAS_CATEGORY) != 0) {
+                product.setCategory(in.readUTF());
+            }
+            return product;
+        } catch (IOException e) {
+            throw new SerializationException("Cannot deserialize cached product", e);
+        }
+    }
+}
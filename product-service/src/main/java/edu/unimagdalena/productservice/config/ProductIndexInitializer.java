@@ -0,0 +1,38 @@
+package edu.unimagdalena.productservice.config;
+
+import edu.unimagdalena.productservice.model.Product;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea al arrancar los indices que usan las consultas de productos (createIndex es idempotente).
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void createIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Product.class);
+        // Paginacion keyset por categoria+precio; _id desempata y hace la clave unica
+        indexOps.ensureIndex(new Index()
+                .on("category", Sort.Direction.ASC)
+                .on("price", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("category_price_id"));
+        // Consultas por rango de precio sin categoria
+        indexOps.ensureIndex(new Index().on("price", Sort.Direction.ASC).named("price"));
+        logger.info("Product indexes ensured: {}", indexOps.getIndexInfo().size());
+    }
+}
@@ -0,0 +1,50 @@
+package edu.unimagdalena.productservice.config;
+
+import edu.unimagdalena.productservice.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+/**
+ * Convierte a Decimal128 los precios guardados como String antes de que price pasara a DECIMAL128.
+ * Corre al crear el bean, durante el refresh del contexto: el servidor web arranca despues, asi que
+ * ninguna peticion lee un precio String. No hace nada si no quedan precios String.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductPriceMigration implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductPriceMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        // El filtro por tipo hace de guarda: un documento ya convertido deja de coincidir, asi que
+        // varias replicas arrancando a la vez nunca convierten dos veces el mismo precio
+        Query pending = Query.query(Criteria.where("price").type(JsonSchemaObject.Type.STRING));
+        if (!mongoTemplate.exists(pending, Product.class)) {
+            return;
+        }
+        // Un solo updateMany con pipeline: la conversion la hace el servidor, sin traer documentos.
+        // Los valores que no son numericos se dejan como estan en lugar de abortar toda la migracion
+        AggregationUpdate toDecimal = AggregationUpdate.update()
+                .set("price").toValue(ConvertOperators.Convert.convertValueOf("price")
+                        .to("decimal")
+                        .onErrorReturnValueOf("price"));
+        long migrated = mongoTemplate.updateMulti(pending, toDecimal, Product.class).getModifiedCount();
+        long invalid = mongoTemplate.count(pending, Product.class);
+        logger.info("Migrated {} product prices from String to Decimal128", migrated);
+        if (invalid > 0) {
+            logger.warn("{} products keep a non-numeric String price", invalid);
+        }
+    }
+}
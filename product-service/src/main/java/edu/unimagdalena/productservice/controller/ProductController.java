@@ -1,72 +1,180 @@
 package edu.unimagdalena.productservice.controller;
 
+import edu.unimagdalena.productservice.model.BulkUpsertResult;
 import edu.unimagdalena.productservice.model.Product;
-import edu.unimagdalena.productservice.service.ProductService;
+import edu.unimagdalena.productservice.model.ProductPage;
+import edu.unimagdalena.productservice.service.ReactiveProductService;
+import edu.unimagdalena.productservice.service.bulk.ProductBulkWriter;
 import edu.unimagdalena.productservice.service.caching.CacheInvalidationService;
+import edu.unimagdalena.productservice.service.pagination.ProductKeysetQuery;
+import edu.unimagdalena.productservice.service.pagination.ProductSort;
+import edu.unimagdalena.productservice.service.search.ProductSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequiredArgsConstructor
 public class ProductController {
 
 
+    private static final int MAX_BATCH_IDS = 500;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final Logger logger = LoggerFactory.getLogger(ProductController.class);
-    private final ProductService productService;
+    private final ReactiveProductService productService;
     private final CacheInvalidationService cacheInvalidationService;
+    private final ProductBulkWriter productBulkWriter;
+    private final ProductSearchIndex productSearchIndex;
+    private final MeterRegistry meterRegistry;
 
     @GetMapping
     public ResponseEntity<Flux<Product>> getAllProducts() {
         logger.info("Get all products");
         return ResponseEntity.ok()
                 .header("X-Cache", "ORIGIN")
-                .body(Flux.fromIterable(productService.getAllProducts()));
+                .body(productService.getAllProducts());
+    }
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Product> exportProducts() {
+        logger.info("Export products");
+        // Cada producto se escribe en cuanto se lee; la contrapresion del cliente regula la lectura del cursor
+        return productService.exportProducts();
+    }
+
+    @GetMapping("/category/{category}")
+    public ResponseEntity<Flux<Product>> getProductsByCategory(@PathVariable String category,
+                                                               @RequestParam(required = false) BigDecimal minPrice,
+                                                               @RequestParam(required = false) BigDecimal maxPrice) {
+        logger.info("Get products by category: {}", category);
+        validatePriceRange(minPrice, maxPrice);
+        return ResponseEntity.ok()
+                .header("X-Cache", "ORIGIN")
+                .body(productService.getProductsByCategory(category, minPrice, maxPrice));
+    }
+
+    @GetMapping("/price-range")
+    public ResponseEntity<Flux<Product>> getProductsByPriceRange(@RequestParam(required = false) BigDecimal minPrice,
+                                                                 @RequestParam(required = false) BigDecimal maxPrice) {
+        logger.info("Get products by price range: {} - {}", minPrice, maxPrice);
+        validatePriceRange(minPrice, maxPrice);
+        return ResponseEntity.ok()
+                .header("X-Cache", "ORIGIN")
+                .body(productService.getProductsByPriceRange(minPrice, maxPrice));
+    }
+
+    private static void validatePriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice must not be greater than maxPrice");
+        }
+    }
+
+    /**
+     * Autocompletado y busqueda por tokens en nombre y categoria, desde el indice en memoria.
+     */
+    @GetMapping("/search")
+    public Flux<Product> searchProducts(@RequestParam("q") String query,
+                                        @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        return Flux.fromIterable(productSearchIndex.search(query, limit));
+    }
+
+    /**
+     * Listado paginado por cursor. {@code fields} limita los campos devueltos (p. ej. id,name,price).
+     */
+    @GetMapping("/page")
+    public Mono<ProductPage> getProductPage(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int size,
+                                            @RequestParam(defaultValue = "ID") ProductSort sort,
+                                            @RequestParam(required = false) Set<String> fields) {
+        if (size < 1 || size > ProductKeysetQuery.MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + ProductKeysetQuery.MAX_PAGE_SIZE);
+        }
+        if (fields != null && !ProductKeysetQuery.PROJECTABLE_FIELDS.containsAll(fields)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields must be within " + ProductKeysetQuery.PROJECTABLE_FIELDS);
+        }
+        return productService.getProductPage(cursor, size, sort, fields)
+                .onErrorMap(IllegalArgumentException.class, error -> new ResponseStatusException(HttpStatus.BAD_REQUEST, error.getMessage()));
     }
 
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<Product>> getProductById(@PathVariable String id) throws InterruptedException {
+    public Mono<ResponseEntity<Product>> getProductById(@PathVariable String id) {
 
         if (id.equals("550e8400-e29b-41d4-a716-446655440010")) {
             throw new IllegalStateException("PRODUCTO NO ENCONTRADO");
         }
 
-
-
+        Mono<Product> product = productService.getProductById(id);
         if (id.equals("550e8400-e29b-41d4-a716-446655440007")) {
-            TimeUnit.SECONDS.sleep(5L); //5 Segundo de demora Para abrir CircuitBraker
+            // 5 Segundo de demora Para abrir CircuitBraker, sin dormir el hilo del event loop
+            product = product.delayElement(Duration.ofSeconds(5L));
         }
 
         logger.info("Get product by id: {}", id);
-        return Mono.justOrEmpty(productService.getProductById(id))
+        // Latencia de la busqueda por id, con o sin acierto en product-cache
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return product
+                .doFinally(signal -> sample.stop(meterRegistry.timer("product.lookup", "operation", "by-id")))
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Multi-get: resuelve varios ids con una sola consulta. Los ids que no existen no aparecen en la respuesta.
+     */
+    @PostMapping("/batch")
+    public Flux<Product> getProductsByIds(@RequestBody List<String> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        logger.info("Get {} products by id", ids.size());
+        return productService.getProductsByIds(new LinkedHashSet<>(ids));
+    }
+
     @PostMapping
     public Mono<ResponseEntity<Product>> createProduct(@RequestBody Product product) {
-        return Mono.just(productService.createProduct(product))
+        return productService.createProduct(product)
                 .map(savedProduct -> ResponseEntity.status(HttpStatus.CREATED).body(savedProduct));
     }
 
+    /**
+     * Carga masiva: acepta un array JSON o NDJSON y lo procesa a medida que llega, por lotes.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<BulkUpsertResult> bulkUpsertProducts(@RequestBody Flux<Product> products) {
+        logger.info("Bulk upsert products");
+        return productBulkWriter.upsert(products);
+    }
+
     @PutMapping("/{id}")
     public Mono<ResponseEntity<Product>> updateProduct(@PathVariable String id, @RequestBody Product product) {
-        return Mono.justOrEmpty(productService.updateProduct(id, product))
+        return productService.updateProduct(id, product)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable String id) {
-        productService.deleteProduct(id);
-        return Mono.just(ResponseEntity.noContent().build());
+        return productService.deleteProduct(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
     }
 }
@@ -0,0 +1,43 @@
+package edu.unimagdalena.productservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de una carga masiva. {@code failures} indica la posicion de cada producto rechazado
+ * dentro del cuerpo recibido; el resto de productos se escribe igualmente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpsertResult {
+
+    private long received;
+    private long inserted;
+    private long updated;
+    private List<Failure> failures = new ArrayList<>();
+
+    public static BulkUpsertResult empty() {
+        return new BulkUpsertResult(0, 0, 0, new ArrayList<>());
+    }
+
+    public BulkUpsertResult merge(BulkUpsertResult other) {
+        List<Failure> merged = new ArrayList<>(failures);
+        merged.addAll(other.failures);
+        return new BulkUpsertResult(received + other.received, inserted + other.inserted,
+                updated + other.updated, merged);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+        private long index;
+        private String id;
+        private String message;
+    }
+}
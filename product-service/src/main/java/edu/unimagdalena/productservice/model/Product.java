@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -22,6 +24,8 @@ public class Product {
 
     private String name;
 
+    // Decimal128 y no String: el orden y los rangos por precio tienen que ser numericos
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal price;
 
     private String category;
@@ -0,0 +1,18 @@
+package edu.unimagdalena.productservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPage {
+
+    private List<ProductProjection> items;
+
+    // null cuando no hay mas paginas
+    private String nextCursor;
+}
@@ -0,0 +1,31 @@
+package edu.unimagdalena.productservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Producto dentro de una {@link ProductPage}. Con {@code fields} la consulta deja campos en null y no se
+ * serializan; el resto de endpoints devuelve {@link Product} con todos sus campos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductProjection {
+
+    private String id;
+
+    private String name;
+
+    private BigDecimal price;
+
+    private String category;
+
+    public static ProductProjection of(Product product) {
+        return new ProductProjection(product.getId(), product.getName(), product.getPrice(), product.getCategory());
+    }
+}
@@ -1,12 +1,38 @@
 package edu.unimagdalena.productservice.repository;
 
 import edu.unimagdalena.productservice.model.Product;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends MongoRepository<Product, String> {
+
+    int EXPORT_BATCH_SIZE = 500;
+
+    // Stream respaldado por el cursor de Mongo: hay que cerrarlo al terminar
+    @Meta(cursorBatchSize = EXPORT_BATCH_SIZE)
+    Stream<Product> streamAllBy();
+
+    // Resueltas con el indice (category, price, _id): filtro por categoria y orden por precio sin SORT en memoria
+    List<Product> findByCategoryAndPriceBetweenOrderByPriceAsc(String category, Range<BigDecimal> price);
+
+    // Resuelta con el indice de price
+    List<Product> findByPriceBetweenOrderByPriceAsc(Range<BigDecimal> price);
+
+    /**
+     * Rango cerrado de precios; un limite {@code null} queda abierto.
+     */
+    static Range<BigDecimal> priceRange(BigDecimal min, BigDecimal max) {
+        return Range.of(
+                min != null ? Range.Bound.inclusive(min) : Range.Bound.unbounded(),
+                max != null ? Range.Bound.inclusive(max) : Range.Bound.unbounded());
+    }
 }
 
@@ -0,0 +1,22 @@
+package edu.unimagdalena.productservice.repository;
+
+import edu.unimagdalena.productservice.model.Product;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String> {
+
+    // Cursor con lotes acotados: el driver pide el siguiente lote solo cuando hay demanda
+    @Meta(cursorBatchSize = ProductRepository.EXPORT_BATCH_SIZE)
+    Flux<Product> streamAllBy();
+
+    Flux<Product> findByCategoryAndPriceBetweenOrderByPriceAsc(String category, Range<BigDecimal> price);
+
+    Flux<Product> findByPriceBetweenOrderByPriceAsc(Range<BigDecimal> price);
+}
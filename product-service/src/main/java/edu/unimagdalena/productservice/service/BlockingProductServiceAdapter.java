@@ -0,0 +1,89 @@
+package edu.unimagdalena.productservice.service;
+
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.model.ProductPage;
+import edu.unimagdalena.productservice.service.pagination.ProductSort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Modo {@code blocking}: mismo ProductService sobre MongoRepository, pero cada llamada se ejecuta en
+ * boundedElastic para no bloquear los hilos del event loop. Se mantiene para comparar ambos modos.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "product.service.mode", havingValue = "blocking")
+public class BlockingProductServiceAdapter implements ReactiveProductService {
+
+    private final ProductService productService;
+
+    @Override
+    public Flux<Product> getAllProducts() {
+        return Flux.defer(() -> Flux.fromIterable(productService.getAllProducts()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<Product> exportProducts() {
+        // fromStream cierra el cursor al completar o cancelar
+        return Flux.fromStream(productService::streamAllProducts)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<ProductPage> getProductPage(String cursor, int size, ProductSort sort, Collection<String> fields) {
+        return Mono.fromCallable(() -> productService.getProductPage(cursor, size, sort, fields))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<Product> getProductsByCategory(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        return Flux.defer(() -> Flux.fromIterable(productService.getProductsByCategory(category, minPrice, maxPrice)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return Flux.defer(() -> Flux.fromIterable(productService.getProductsByPriceRange(minPrice, maxPrice)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Product> getProductById(String id) {
+        return Mono.fromCallable(() -> productService.getProductById(id))
+                .flatMap(Mono::justOrEmpty)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<Product> getProductsByIds(Collection<String> ids) {
+        return Flux.defer(() -> Flux.fromIterable(productService.getProductsByIds(ids)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Product> createProduct(Product product) {
+        return Mono.fromCallable(() -> productService.createProduct(product))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Product> updateProduct(String id, Product productDetails) {
+        return Mono.fromCallable(() -> productService.updateProduct(id, productDetails))
+                .flatMap(Mono::justOrEmpty)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> deleteProduct(String id) {
+        return Mono.<Void>fromRunnable(() -> productService.deleteProduct(id))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -1,17 +1,29 @@
 package edu.unimagdalena.productservice.service;
 
 import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.model.ProductPage;
+import edu.unimagdalena.productservice.service.pagination.ProductSort;
 import edu.unimagdalena.productservice.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ProductService {
     List<Product> getAllProducts();
+    Stream<Product> streamAllProducts();
+    ProductPage getProductPage(String cursor, int size, ProductSort sort, Collection<String> fields);
+    // Limites de precio opcionales (null = sin limite) e inclusivos
+    List<Product> getProductsByCategory(String category, BigDecimal minPrice, BigDecimal maxPrice);
+    List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
     Optional<Product> getProductById(String id);
+    // Un solo find con $in; los ids inexistentes se omiten
+    List<Product> getProductsByIds(Collection<String> ids);
     Product createProduct(Product product);
     Optional<Product> updateProduct(String id, Product productDetails);
     void deleteProduct(String id);
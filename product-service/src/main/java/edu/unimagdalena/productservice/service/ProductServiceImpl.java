@@ -1,23 +1,42 @@
 package edu.unimagdalena.productservice.service;
 
+import edu.unimagdalena.productservice.config.CacheConfig;
 import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.model.ProductPage;
 import edu.unimagdalena.productservice.repository.ProductRepository;
 import edu.unimagdalena.productservice.service.ProductService;
+import edu.unimagdalena.productservice.service.caching.ProductChangedEvent;
+import edu.unimagdalena.productservice.service.pagination.ProductKeysetQuery;
+import edu.unimagdalena.productservice.service.pagination.ProductSort;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    // Cada escritura publica un ProductChangedEvent que invalida la cache del gateway
+    private final ApplicationEventPublisher eventPublisher;
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
 
     @PostConstruct
     public void initDatabaseIfEmpty() {
@@ -40,20 +59,75 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    public Stream<Product> streamAllProducts() {
+        return productRepository.streamAllBy();
+    }
+
+    @Override
+    public ProductPage getProductPage(String cursor, int size, ProductSort sort, Collection<String> fields) {
+        List<Product> rows = mongoTemplate.find(ProductKeysetQuery.build(cursor, size, sort, fields), Product.class);
+        return ProductKeysetQuery.toPage(rows, size, sort, fields);
+    }
+
+    @Override
+    public List<Product> getProductsByCategory(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        return productRepository.findByCategoryAndPriceBetweenOrderByPriceAsc(category, ProductRepository.priceRange(minPrice, maxPrice));
+    }
+
+    @Override
+    public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return productRepository.findByPriceBetweenOrderByPriceAsc(ProductRepository.priceRange(minPrice, maxPrice));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_CACHE, key = "#id", unless = "#result == null")
     public Optional<Product> getProductById(String id) {
         return productRepository.findById(id);
     }
 
+    /**
+     * Multi-get que respeta {@link CacheConfig#PRODUCT_CACHE}: primero la cache por id y solo los fallos
+     * van a Mongo en una consulta; lo leido se guarda para las siguientes peticiones.
+     */
+    @Override
+    public List<Product> getProductsByIds(Collection<String> ids) {
+        Cache productCache = cacheManager.getCache(CacheConfig.PRODUCT_CACHE);
+        if (productCache == null) {
+            return productRepository.findAllById(ids);
+        }
+        List<Product> products = new ArrayList<>(ids.size());
+        List<String> misses = new ArrayList<>();
+        for (String id : ids) {
+            Product product = productCache.get(id, Product.class);
+            if (product != null) {
+                products.add(product);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Product product : productRepository.findAllById(misses)) {
+                productCache.put(product.getId(), product);
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
     @Override
     public Product createProduct(Product product) {
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        publishChange(savedProduct.getId(), savedProduct.getCategory());
+        return savedProduct;
     }
 
     @Override
+    @CachePut(cacheNames = CacheConfig.PRODUCT_CACHE, key = "#id", unless = "#result == null")
     public Optional<Product> updateProduct(String id, Product productDetails) {
         return productRepository.findById(id)
                 .map(existingProduct -> {
+                    String previousCategory = existingProduct.getCategory();
                     if (productDetails.getName() != null) {
                         existingProduct.setName(productDetails.getName());
                     }
@@ -63,13 +137,22 @@ public class ProductServiceImpl implements ProductService {
                     if (productDetails.getCategory() != null) {
                         existingProduct.setCategory(productDetails.getCategory());
                     }
-                    return productRepository.save(existingProduct);
+                    Product savedProduct = productRepository.save(existingProduct);
+                    publishChange(id, previousCategory, savedProduct.getCategory());
+                    return savedProduct;
                 });
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_CACHE, key = "#id")
     public void deleteProduct(String id) {
+        String category = productRepository.findById(id).map(Product::getCategory).orElse(null);
         productRepository.deleteById(id);
+        publishChange(id, category);
+    }
+
+    private void publishChange(String productId, String... categories) {
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId, categories));
     }
 }
 
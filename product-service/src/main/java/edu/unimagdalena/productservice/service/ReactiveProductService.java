@@ -0,0 +1,30 @@
+package edu.unimagdalena.productservice.service;
+
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.model.ProductPage;
+import edu.unimagdalena.productservice.service.pagination.ProductSort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Contrato no bloqueante que usa ProductController. La implementacion se elige con
+ * {@code product.service.mode}: {@code reactive} (driver reactivo de Mongo) o {@code blocking}
+ * (ProductService sobre MongoRepository, ejecutado fuera del event loop).
+ */
+public interface ReactiveProductService {
+    Flux<Product> getAllProducts();
+    // Exportacion completa en memoria constante: lee el catalogo por lotes del cursor segun la demanda
+    Flux<Product> exportProducts();
+    // Pagina keyset: fields vacio = todos los campos
+    Mono<ProductPage> getProductPage(String cursor, int size, ProductSort sort, Collection<String> fields);
+    Flux<Product> getProductsByCategory(String category, BigDecimal minPrice, BigDecimal maxPrice);
+    Flux<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
+    Mono<Product> getProductById(String id);
+    Flux<Product> getProductsByIds(Collection<String> ids);
+    Mono<Product> createProduct(Product product);
+    Mono<Product> updateProduct(String id, Product productDetails);
+    Mono<Void> deleteProduct(String id);
+}
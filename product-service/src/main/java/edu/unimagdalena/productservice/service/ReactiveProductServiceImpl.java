@@ -0,0 +1,148 @@
+package edu.unimagdalena.productservice.service;
+
+import edu.unimagdalena.productservice.config.CacheConfig;
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.model.ProductPage;
+import edu.unimagdalena.productservice.repository.ProductRepository;
+import edu.unimagdalena.productservice.repository.ReactiveProductRepository;
+import edu.unimagdalena.productservice.service.caching.ProductChangedEvent;
+import edu.unimagdalena.productservice.service.pagination.ProductKeysetQuery;
+import edu.unimagdalena.productservice.service.pagination.ProductSort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "product.service.mode", havingValue = "reactive", matchIfMissing = true)
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+    private final ReactiveProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+
+    @Override
+    public Flux<Product> getAllProducts() {
+        // Los documentos se emiten a medida que llegan del cursor
+        return productRepository.findAll();
+    }
+
+    @Override
+    public Flux<Product> exportProducts() {
+        return productRepository.streamAllBy();
+    }
+
+    @Override
+    public Mono<ProductPage> getProductPage(String cursor, int size, ProductSort sort, Collection<String> fields) {
+        return Mono.fromCallable(() -> ProductKeysetQuery.build(cursor, size, sort, fields))
+                .flatMap(query -> mongoTemplate.find(query, Product.class).collectList())
+                .map(rows -> ProductKeysetQuery.toPage(rows, size, sort, fields));
+    }
+
+    @Override
+    public Flux<Product> getProductsByCategory(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        return productRepository.findByCategoryAndPriceBetweenOrderByPriceAsc(category, ProductRepository.priceRange(minPrice, maxPrice));
+    }
+
+    @Override
+    public Flux<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return productRepository.findByPriceBetweenOrderByPriceAsc(ProductRepository.priceRange(minPrice, maxPrice));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_CACHE, key = "#id", unless = "#result == null")
+    public Mono<Product> getProductById(String id) {
+        return productRepository.findById(id);
+    }
+
+    /**
+     * Multi-get que respeta {@link CacheConfig#PRODUCT_CACHE}: primero la cache por id y solo los fallos
+     * van a Mongo en una consulta; lo leido se guarda para las siguientes peticiones.
+     */
+    @Override
+    public Flux<Product> getProductsByIds(Collection<String> ids) {
+        Cache productCache = cacheManager.getCache(CacheConfig.PRODUCT_CACHE);
+        if (productCache == null) {
+            return productRepository.findAllById(ids);
+        }
+        // Cache de Spring bloqueante: fuera del event loop
+        return Mono.fromCallable(() -> {
+                    Map<String, Product> cached = new LinkedHashMap<>();
+                    for (String id : ids) {
+                        Product product = productCache.get(id, Product.class);
+                        if (product != null) {
+                            cached.put(id, product);
+                        }
+                    }
+                    return cached;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(cached -> {
+                    List<String> misses = ids.stream().filter(id -> !cached.containsKey(id)).toList();
+                    if (misses.isEmpty()) {
+                        return Flux.fromIterable(cached.values());
+                    }
+                    return Flux.fromIterable(cached.values())
+                            .concatWith(productRepository.findAllById(misses)
+                                    .publishOn(Schedulers.boundedElastic())
+                                    .doOnNext(product -> productCache.put(product.getId(), product)));
+                });
+    }
+
+    @Override
+    public Mono<Product> createProduct(Product product) {
+        return productRepository.save(product)
+                .doOnNext(savedProduct -> eventPublisher.publishEvent(
+                        ProductChangedEvent.of(savedProduct.getId(), savedProduct.getCategory())));
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.PRODUCT_CACHE, key = "#id", unless = "#result == null")
+    public Mono<Product> updateProduct(String id, Product productDetails) {
+        return productRepository.findById(id)
+                .flatMap(existingProduct -> {
+                    String previousCategory = existingProduct.getCategory();
+                    if (productDetails.getName() != null) {
+                        existingProduct.setName(productDetails.getName());
+                    }
+                    if (productDetails.getPrice() != null) {
+                        existingProduct.setPrice(productDetails.getPrice());
+                    }
+                    if (productDetails.getCategory() != null) {
+                        existingProduct.setCategory(productDetails.getCategory());
+                    }
+                    return productRepository.save(existingProduct)
+                            .doOnNext(savedProduct -> eventPublisher.publishEvent(
+                                    ProductChangedEvent.of(id, previousCategory, savedProduct.getCategory())));
+                });
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_CACHE, key = "#id")
+    public Mono<Void> deleteProduct(String id) {
+        return productRepository.findById(id)
+                .map(product -> Optional.ofNullable(product.getCategory()))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(category -> productRepository.deleteById(id)
+                        .doOnSuccess(done -> eventPublisher.publishEvent(
+                                ProductChangedEvent.of(id, category.orElse(null)))));
+    }
+}
@@ -0,0 +1,144 @@
+package edu.unimagdalena.productservice.service.bulk;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import edu.unimagdalena.productservice.config.CacheConfig;
+import edu.unimagdalena.productservice.model.BulkUpsertResult;
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.service.caching.CacheInvalidationService;
+import edu.unimagdalena.productservice.service.search.ProductSearchIndex;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Carga masiva de productos: agrupa el flujo recibido en lotes y escribe cada lote con un solo
+ * bulkWrite no ordenado (replaceOne con upsert por _id). Un documento con error no detiene el resto
+ * del lote; se reporta con su posicion en {@link BulkUpsertResult#getFailures()}.
+ * <p>
+ * Los documentos se convierten aqui directamente, sin pasar por los eventos de mapeo de cada save().
+ */
+@Component
+public class ProductBulkWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBulkWriter.class);
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final CacheManager cacheManager;
+    private final ProductSearchIndex searchIndex;
+    private final int batchSize;
+
+    public ProductBulkWriter(ReactiveMongoTemplate mongoTemplate,
+                             CacheInvalidationService cacheInvalidationService,
+                             CacheManager cacheManager,
+                             ProductSearchIndex searchIndex,
+                             @Value("${product.bulk.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.cacheManager = cacheManager;
+        this.searchIndex = searchIndex;
+        this.batchSize = batchSize;
+    }
+
+    public Mono<BulkUpsertResult> upsert(Flux<Product> products) {
+        return products.index()
+                .buffer(batchSize)
+                // Un lote en vuelo: mientras se escribe se decodifica el siguiente
+                .concatMap(this::writeBatch)
+                .reduce(BulkUpsertResult.empty(), BulkUpsertResult::merge)
+                .flatMap(result -> {
+                    logger.info("Bulk upsert: {} received, {} inserted, {} updated, {} failed",
+                            result.getReceived(), result.getInserted(), result.getUpdated(), result.getFailures().size());
+                    // Una sola invalidacion al final en lugar de una por producto
+                    return result.getInserted() + result.getUpdated() > 0
+                            ? cacheInvalidationService.invalidateAllProductsCache().thenReturn(result)
+                            : Mono.just(result);
+                });
+    }
+
+    private Mono<BulkUpsertResult> writeBatch(List<Tuple2<Long, Product>> batch) {
+        List<WriteModel<Document>> models = new ArrayList<>(batch.size());
+        List<Tuple2<Long, Product>> written = new ArrayList<>(batch.size());
+        List<BulkUpsertResult.Failure> failures = new ArrayList<>();
+
+        for (Tuple2<Long, Product> item : batch) {
+            Product product = item.getT2();
+            try {
+                if (product.getId() == null) {
+                    product.setId(UUID.randomUUID().toString());
+                }
+                Document document = new Document();
+                mongoTemplate.getConverter().write(product, document);
+                models.add(new ReplaceOneModel<>(Filters.eq("_id", product.getId()), document, UPSERT));
+                written.add(item);
+            } catch (RuntimeException e) {
+                failures.add(new BulkUpsertResult.Failure(item.getT1(), product.getId(), e.getMessage()));
+            }
+        }
+        if (models.isEmpty()) {
+            return Mono.just(new BulkUpsertResult(batch.size(), 0, 0, failures));
+        }
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(models, UNORDERED)))
+                .map(result -> toResult(batch.size(), result, failures))
+                .onErrorResume(MongoBulkWriteException.class, e -> {
+                    // Los indices del error son relativos a la lista de modelos enviada
+                    e.getWriteErrors().forEach(error -> {
+                        Tuple2<Long, Product> item = written.get(error.getIndex());
+                        failures.add(new BulkUpsertResult.Failure(item.getT1(), item.getT2().getId(), error.getMessage()));
+                    });
+                    return Mono.just(toResult(batch.size(), e.getWriteResult(), failures));
+                })
+                .doOnNext(result -> indexWritten(written, result))
+                .flatMap(result -> evictCached(written).thenReturn(result));
+    }
+
+    private void indexWritten(List<Tuple2<Long, Product>> written, BulkUpsertResult result) {
+        Set<Long> failed = result.getFailures().stream()
+                .map(BulkUpsertResult.Failure::getIndex)
+                .collect(Collectors.toSet());
+        searchIndex.indexAll(written.stream()
+                .filter(item -> !failed.contains(item.getT1()))
+                .map(Tuple2::getT2)
+                .toList());
+    }
+
+    private Mono<Void> evictCached(List<Tuple2<Long, Product>> written) {
+        Cache productCache = cacheManager.getCache(CacheConfig.PRODUCT_CACHE);
+        if (productCache == null) {
+            return Mono.empty();
+        }
+        // Cache de Spring bloqueante: fuera del event loop
+        return Mono.<Void>fromRunnable(() -> written.forEach(item -> productCache.evict(item.getT2().getId())))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static BulkUpsertResult toResult(int received, BulkWriteResult result, List<BulkUpsertResult.Failure> failures) {
+        // Con replaceOne+upsert: matched = reemplazados, upserts = insertados
+        return new BulkUpsertResult(received, result.getUpserts().size(), result.getMatchedCount(), failures);
+    }
+}
@@ -2,15 +2,36 @@ package edu.unimagdalena.productservice.service.caching;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Invalida las respuestas cacheadas por el gateway usando el indice de tags que este mantiene
+ * (un set de Redis por tag con las claves que lo llevan). El coste es proporcional a las entradas
+ * afectadas, no al tamaño del keyspace como con KEYS.
+ */
 @Service
 public class CacheInvalidationService {
 
     private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationService.class);
-    private static final String CACHE_PREFIX = "products:cache:";
+    // Deben coincidir con CacheTagIndex del gateway
+    private static final String TAG_PREFIX = "products:cache-tags:";
+    private static final String ALL_TAG = "all";
+    private static final String LIST_TAG = "list";
+    // El gateway no guarda respuestas pedidas antes del ultimo incremento (ver CacheTagIndex.store)
+    private static final String GENERATION_KEY = "products:cache-generation";
+    // Canal escuchado por el gateway para invalidar tambien su cache L1 en memoria
+    private static final String INVALIDATION_CHANNEL = "products:cache:invalidations";
+    private static final int DELETE_BATCH_SIZE = 500;
+    // Lotes en vuelo a la vez: Lettuce los envia por la misma conexion sin esperar respuesta (pipelining)
+    private static final int DELETE_CONCURRENCY = 4;
 
     private final ReactiveStringRedisTemplate redisTemplate;
 
@@ -18,29 +39,68 @@ public class CacheInvalidationService {
         this.redisTemplate = redisTemplate;
     }
 
-    public Mono<Void> invalidateProductCache(Long productId) {
-        String pattern = CACHE_PREFIX + "*api_products_" + productId + "*";
-        return invalidateCacheByPattern(pattern)
-                .doOnSuccess(v -> logger.info("Invalidated cache for product: {}", productId));
+    /**
+     * Invalidacion automatica tras una escritura: el producto, sus categorias y los listados generales.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Flux.concat(
+                        invalidateTag("product:" + event.productId()),
+                        Flux.fromIterable(event.categories()).concatMap(category -> invalidateTag("category:" + category)),
+                        invalidateTag(LIST_TAG))
+                .reduce(0L, Long::sum)
+                .subscribe(count -> logger.info("Product {} changed, invalidated {} cache entries", event.productId(), count));
+    }
+
+    public Mono<Void> invalidateProductCache(String productId) {
+        return invalidateTag("product:" + productId)
+                .doOnSuccess(count -> logger.info("Invalidated {} cache entries for product: {}", count, productId))
+                .then();
     }
 
     public Mono<Void> invalidateAllProductsCache() {
-        String pattern = CACHE_PREFIX + "*api_products*";
-        return invalidateCacheByPattern(pattern)
-                .doOnSuccess(v -> logger.info("Invalidated all products cache"));
+        return invalidateTag(ALL_TAG)
+                .doOnSuccess(count -> logger.info("Invalidated {} entries of all products cache", count))
+                .then();
     }
 
     public Mono<Void> invalidateCategoryCache(String category) {
-        String pattern = CACHE_PREFIX + "*category_" + category + "*";
-        return invalidateCacheByPattern(pattern)
-                .doOnSuccess(v -> logger.info("Invalidated cache for category: {}", category));
+        return invalidateTag("category:" + category)
+                .doOnSuccess(count -> logger.info("Invalidated {} cache entries for category: {}", count, category))
+                .then();
     }
 
-    private Mono<Void> invalidateCacheByPattern(String pattern) {
-        return redisTemplate.keys(pattern)
-                .flatMap(redisTemplate::delete)
-                .then()
+    /**
+     * Renombra el set del tag antes de recorrerlo: las entradas que el gateway etiquete mientras tanto
+     * van a un set nuevo y no se pierden al borrar el que se esta procesando.
+     */
+    private Mono<Long> invalidateTag(String tag) {
+        String tagKey = TAG_PREFIX + tag;
+        String draining = tagKey + ":draining:" + UUID.randomUUID();
+
+        // Primero la generacion: una respuesta que el gateway leyo antes de esta escritura y aun no guardo
+        // ya no podra guardarse, y las guardadas antes estan en el set que se renombra a continuacion
+        return redisTemplate.opsForValue().increment(GENERATION_KEY)
+                .then(redisTemplate.rename(tagKey, draining))
+                // RENAME falla si el set no existe: no hay nada cacheado con ese tag
+                .onErrorResume(error -> Mono.just(false))
+                .filter(Boolean::booleanValue)
+                .flatMap(renamed -> redisTemplate.opsForSet()
+                        .scan(draining, ScanOptions.scanOptions().count(DELETE_BATCH_SIZE).build())
+                        .buffer(DELETE_BATCH_SIZE)
+                        .flatMap(this::deleteBatch, DELETE_CONCURRENCY)
+                        .reduce(0L, Long::sum)
+                        .flatMap(count -> redisTemplate.delete(draining).thenReturn(count)))
+                .defaultIfEmpty(0L)
                 .doOnError(error -> logger.error("Error invalidating cache: ", error))
-                .onErrorResume(error -> Mono.empty());
+                .onErrorResume(error -> Mono.just(0L));
+    }
+
+    private Mono<Long> deleteBatch(List<String> keys) {
+        // Un solo DEL con todas las claves del lote
+        return redisTemplate.delete(keys.toArray(String[]::new))
+                // El gateway separa por lineas y elimina cada clave de su L1
+                .flatMap(deleted -> redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join("\n", keys))
+                        .thenReturn(deleted));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package edu.unimagdalena.productservice.service.caching;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Se publica tras crear, actualizar o borrar un producto. {@code categories} incluye la categoria
+ * anterior y la nueva cuando una actualizacion la cambia, para invalidar ambos listados.
+ */
+public record ProductChangedEvent(String productId, Set<String> categories) {
+
+    public static ProductChangedEvent of(String productId, String... categories) {
+        return new ProductChangedEvent(productId, Arrays.stream(categories)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+    }
+}
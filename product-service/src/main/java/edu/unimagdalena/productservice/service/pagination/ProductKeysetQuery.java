@@ -0,0 +1,142 @@
+package edu.unimagdalena.productservice.service.pagination;
+
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.model.ProductPage;
+import edu.unimagdalena.productservice.model.ProductProjection;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Paginacion keyset (por cursor) sobre la coleccion de productos: cada pagina filtra por
+ * "despues del ultimo elemento visto" usando el indice, asi la pagina N cuesta lo mismo que la 1
+ * (no hay skip). El cursor es opaco para el cliente (Base64 URL-safe de los valores de la clave).
+ */
+public final class ProductKeysetQuery {
+
+    public static final Set<String> PROJECTABLE_FIELDS = Set.of("id", "name", "price", "category");
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final char SEPARATOR = '\u0000';
+    // Prefijo de los valores presentes en el cursor; un segmento vacio es null (categoria o precio sin valor)
+    private static final String PRESENT = "=";
+
+    private ProductKeysetQuery() {
+    }
+
+    /**
+     * Pide {@code size + 1} documentos: el extra solo indica si existe una pagina siguiente.
+     */
+    public static Query build(String cursor, int size, ProductSort sort, Collection<String> fields) {
+        Query query = new Query().limit(size + 1);
+
+        if (sort == ProductSort.CATEGORY_PRICE) {
+            query.with(Sort.by("category", "price", "_id"));
+            if (cursor != null) {
+                String[] key = decode(cursor, 3);
+                String category = decodeNullable(key[0]);
+                String priceValue = decodeNullable(key[1]);
+                Decimal128 price = priceValue != null ? new Decimal128(parsePrice(priceValue)) : null;
+                query.addCriteria(new Criteria().orOperator(
+                        after(Criteria.where("category"), category),
+                        after(Criteria.where("category").is(category).and("price"), price),
+                        Criteria.where("category").is(category).and("price").is(price).and("_id").gt(key[2])));
+            }
+        } else {
+            query.with(Sort.by("_id"));
+            if (cursor != null) {
+                query.addCriteria(Criteria.where("_id").gt(decode(cursor, 1)[0]));
+            }
+        }
+
+        if (fields != null && !fields.isEmpty()) {
+            // Los campos del orden se leen siempre para poder construir el cursor siguiente
+            fields.forEach(field -> query.fields().include(field));
+            if (sort == ProductSort.CATEGORY_PRICE) {
+                query.fields().include("category").include("price");
+            }
+        }
+        return query;
+    }
+
+    public static ProductPage toPage(List<Product> rows, int size, ProductSort sort, Collection<String> fields) {
+        boolean hasMore = rows.size() > size;
+        List<Product> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf(items.get(items.size() - 1), sort) : null;
+
+        List<ProductProjection> projected = items.stream().map(ProductProjection::of).toList();
+        if (fields != null && !fields.isEmpty() && sort == ProductSort.CATEGORY_PRICE) {
+            // Quitar los campos de orden que el cliente no pidio
+            projected.forEach(product -> {
+                if (!fields.contains("category")) {
+                    product.setCategory(null);
+                }
+                if (!fields.contains("price")) {
+                    product.setPrice(null);
+                }
+            });
+        }
+        return new ProductPage(projected, nextCursor);
+    }
+
+    private static String cursorOf(Product last, ProductSort sort) {
+        String key = sort == ProductSort.CATEGORY_PRICE
+                ? encodeNullable(last.getCategory())
+                        + SEPARATOR + encodeNullable(last.getPrice() != null ? last.getPrice().toPlainString() : null)
+                        + SEPARATOR + last.getId()
+                : last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Mongo ordena null (o campo ausente) antes que cualquier valor, y {@code $gt: null} no coincide con
+     * nada: "despues de null" es cualquier valor presente.
+     */
+    private static Criteria after(Criteria field, Object value) {
+        return value == null ? field.ne(null) : field.gt(value);
+    }
+
+    private static String encodeNullable(String value) {
+        return value == null ? "" : PRESENT + value;
+    }
+
+    private static String decodeNullable(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (!value.startsWith(PRESENT)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return value.substring(PRESENT.length());
+    }
+
+    private static String[] decode(String cursor, int parts) {
+        String[] key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(String.valueOf(SEPARATOR), -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (key.length != parts) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return key;
+    }
+
+    private static BigDecimal parsePrice(String price) {
+        try {
+            return new BigDecimal(price);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
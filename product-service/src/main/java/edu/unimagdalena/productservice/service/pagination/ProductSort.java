@@ -0,0 +1,9 @@
+package edu.unimagdalena.productservice.service.pagination;
+
+/**
+ * Ordenes soportados por la paginacion keyset. Cada uno tiene detras un indice que cubre el orden.
+ */
+public enum ProductSort {
+    ID,
+    CATEGORY_PRICE
+}
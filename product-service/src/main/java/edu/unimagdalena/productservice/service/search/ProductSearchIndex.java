@@ -0,0 +1,177 @@
+package edu.unimagdalena.productservice.service.search;
+
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.repository.ReactiveProductRepository;
+import edu.unimagdalena.productservice.service.caching.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Indice invertido en memoria sobre nombre y categoria: token -> ids de producto. Los tokens se
+ * guardan ordenados, asi una busqueda por prefijo es un rango del mapa y no un recorrido completo.
+ * <p>
+ * Se construye al arrancar leyendo el catalogo por cursor y se actualiza con cada
+ * {@link ProductChangedEvent}. Las lecturas no bloquean; las escrituras se serializan.
+ * <p>
+ * Limitacion: {@link ProductChangedEvent} es un evento local de Spring, asi que cada replica solo ve
+ * las escrituras que pasan por ella. Con varias replicas el indice de las demas queda desactualizado
+ * hasta su siguiente arranque; la busqueda es aproximada y no debe usarse para decidir existencia o precio.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Product> BY_NAME = Comparator
+            .comparing(Product::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(Product::getId);
+
+    private final ReactiveProductRepository productRepository;
+    private final NavigableMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, Product> products = new ConcurrentHashMap<>();
+
+    public ProductSearchIndex(ReactiveProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        productRepository.streamAllBy()
+                .doOnNext(this::index)
+                .count()
+                .subscribe(
+                        count -> logger.info("Product search index built with {} products, {} tokens", count, postings.size()),
+                        error -> logger.error("Error building product search index: ", error));
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        // El evento solo trae el id: se relee el producto para indexar su estado actual
+        productRepository.findById(event.productId())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .subscribe(product -> product.ifPresentOrElse(this::index, () -> remove(event.productId())),
+                        error -> logger.error("Error updating search index for product {}: ", event.productId(), error));
+    }
+
+    /**
+     * Todos los tokens de la consulta salvo el ultimo deben aparecer completos; el ultimo se trata
+     * como prefijo (autocompletado). Devuelve los primeros {@code limit} productos por nombre.
+     */
+    public List<Product> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        String prefix = tokens.get(tokens.size() - 1);
+        List<Set<String>> required = new ArrayList<>();
+        for (String token : tokens.subList(0, tokens.size() - 1)) {
+            Set<String> ids = postings.get(token);
+            if (ids == null) {
+                return List.of();
+            }
+            required.add(ids);
+        }
+        required.sort(Comparator.comparingInt(Set::size));
+
+        // El rango de tokens esta en orden lexicografico, no por nombre de producto: hay que ver todas las
+        // coincidencias, pero basta un heap de tamaño limit (el peor de los elegidos en la cima) en lugar de
+        // ordenarlas todas. O(m log limit) con m coincidencias, importante con prefijos de 1-2 letras
+        PriorityQueue<Product> top = new PriorityQueue<>(limit + 1, BY_NAME.reversed());
+        Set<String> seen = new HashSet<>();
+        for (Set<String> ids : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            for (String id : ids) {
+                if (!seen.add(id) || !required.stream().allMatch(set -> set.contains(id))) {
+                    continue;
+                }
+                Product product = products.get(id);
+                if (product == null) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(product);
+                } else if (BY_NAME.compare(product, top.peek()) < 0) {
+                    top.poll();
+                    top.add(product);
+                }
+            }
+        }
+        List<Product> results = new ArrayList<>(top);
+        results.sort(BY_NAME);
+        return results;
+    }
+
+    public synchronized void index(Product product) {
+        removeTokens(product.getId());
+        products.put(product.getId(), product);
+        for (String token : tokensOf(product)) {
+            postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(product.getId());
+        }
+    }
+
+    public synchronized void indexAll(Collection<Product> batch) {
+        batch.forEach(this::index);
+    }
+
+    public synchronized void remove(String productId) {
+        removeTokens(productId);
+        products.remove(productId);
+    }
+
+    private void removeTokens(String productId) {
+        Product previous = products.get(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String token : tokensOf(previous)) {
+            Set<String> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private static Set<String> tokensOf(Product product) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(product.getName()));
+        tokens.addAll(tokenize(product.getCategory()));
+        return tokens;
+    }
+
+    /**
+     * Minusculas y sin tildes, separando por cualquier caracter que no sea letra o digito.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return TOKEN_SEPARATOR.splitAsStream(normalized)
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,53 @@
+package edu.unimagdalena.productservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.unimagdalena.productservice.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheSerializerTest {
+
+    private final ProductCacheSerializer serializer = new ProductCacheSerializer();
+
+    @Test
+    void serialize_ShouldRoundTripProductWithExactPrice() {
+        // Arrange
+        Product product = new Product("550e8400-e29b-41d4-a716-446655440002", "Laptop", new BigDecimal("999.990"), "Electronics");
+
+        // Act
+        Product result = serializer.deserialize(serializer.serialize(product));
+
+        // Assert
+        assertThat(result).isEqualTo(product);
+        assertThat(result.getPrice().scale()).isEqualTo(3);
+    }
+
+    @Test
+    void serialize_WithMissingFields_ShouldKeepThemNull() {
+        // Arrange
+        Product product = Product.builder().id("p1").price(new BigDecimal("-5")).build();
+
+        // Act
+        Product result = serializer.deserialize(serializer.serialize(product));
+
+        // Assert
+        assertThat(result).isEqualTo(product);
+        assertThat(result.getName()).isNull();
+        assertThat(result.getCategory()).isNull();
+    }
+
+    @Test
+    void serialize_ShouldBeSmallerThanJson() throws Exception {
+        // Arrange
+        Product product = new Product("550e8400-e29b-41d4-a716-446655440002", "Laptop", new BigDecimal("999.99"), "Electronics");
+
+        // Act
+        byte[] compact = serializer.serialize(product);
+
+        // Assert
+        assertThat(compact.length).isLessThan(new ObjectMapper().writeValueAsBytes(product).length);
+    }
+}
@@ -0,0 +1,66 @@
+package edu.unimagdalena.productservice.config;
+
+import com.mongodb.client.result.UpdateResult;
+import edu.unimagdalena.productservice.model.Product;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPriceMigrationTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private ProductPriceMigration migration;
+
+    @Test
+    void afterPropertiesSet_WithStringPrices_ShouldConvertThemServerSide() {
+        // Arrange
+        when(mongoTemplate.exists(any(Query.class), eq(Product.class))).thenReturn(true);
+        when(mongoTemplate.updateMulti(any(Query.class), any(AggregationUpdate.class), eq(Product.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        // Act
+        migration.afterPropertiesSet();
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<AggregationUpdate> update = ArgumentCaptor.forClass(AggregationUpdate.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(Product.class));
+        assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("price", new Document("$type", List.of("string"))));
+        List<Document> pipeline = update.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertThat(pipeline).containsExactly(new Document("$set", new Document("price",
+                new Document("$convert", new Document("input", "$price")
+                        .append("to", "decimal")
+                        .append("onError", "$price")))));
+    }
+
+    @Test
+    void afterPropertiesSet_WithoutStringPrices_ShouldNotUpdate() {
+        // Arrange
+        when(mongoTemplate.exists(any(Query.class), eq(Product.class))).thenReturn(false);
+
+        // Act
+        migration.afterPropertiesSet();
+
+        // Assert
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(AggregationUpdate.class), eq(Product.class));
+    }
+}
@@ -1,20 +1,29 @@
 package edu.unimagdalena.productservice.service;
 
+import edu.unimagdalena.productservice.config.CacheConfig;
 import edu.unimagdalena.productservice.model.Product;
 import edu.unimagdalena.productservice.repository.ProductRepository;
 import edu.unimagdalena.productservice.service.ProductServiceImpl;
+import edu.unimagdalena.productservice.service.caching.ProductChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.core.MongoTemplate;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -26,6 +35,18 @@ public class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache productCache;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -44,6 +65,23 @@ public class ProductServiceImplTest {
                 .build();
     }
 
+    @Test
+    void getProductsByIds_ShouldQueryOnlyIdsMissingFromProductCache() {
+        // Arrange
+        Product other = Product.builder().id("other").name("Mouse").build();
+        when(cacheManager.getCache(CacheConfig.PRODUCT_CACHE)).thenReturn(productCache);
+        when(productCache.get(productId, Product.class)).thenReturn(product);
+        when(productRepository.findAllById(List.of("other"))).thenReturn(List.of(other));
+
+        // Act
+        List<Product> result = productService.getProductsByIds(List.of(productId, "other"));
+
+        // Assert
+        assertThat(result).containsExactly(product, other);
+        verify(productRepository, times(1)).findAllById(List.of("other"));
+        verify(productCache).put("other", other);
+    }
+
     @Test
     void getAllProducts_ShouldReturnAllProducts() {
         // Arrange
@@ -60,6 +98,34 @@ public class ProductServiceImplTest {
         verify(productRepository, times(1)).findAll();
     }
 
+    @Test
+    void getProductsByCategory_ShouldQueryWithInclusivePriceRange() {
+        // Arrange
+        Range<BigDecimal> range = ProductRepository.priceRange(new BigDecimal("10"), null);
+        when(productRepository.findByCategoryAndPriceBetweenOrderByPriceAsc("Electronics", range)).thenReturn(List.of(product));
+
+        // Act
+        List<Product> result = productService.getProductsByCategory("Electronics", new BigDecimal("10"), null);
+
+        // Assert
+        assertThat(result).containsExactly(product);
+        assertThat(range.getLowerBound().isInclusive()).isTrue();
+        assertThat(range.getUpperBound().isBounded()).isFalse();
+    }
+
+    @Test
+    void streamAllProducts_ShouldDelegateToCursorStream() {
+        // Arrange
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product));
+
+        // Act
+        List<Product> result = productService.streamAllProducts().toList();
+
+        // Assert
+        assertThat(result).containsExactly(product);
+        verify(productRepository, never()).findAll();
+    }
+
     @Test
     void getProductById_WithExistingId_ShouldReturnProduct() {
         // Arrange
@@ -114,6 +180,7 @@ public class ProductServiceImplTest {
         // Assert
         assertThat(result).isEqualTo(savedProduct);
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(id, Set.of("Books")));
     }
 
     @Test
@@ -143,13 +210,14 @@ public class ProductServiceImplTest {
         Product productToUpdate = Product.builder()
                 .name("Updated Product")
                 .price(new BigDecimal("129.99"))
+                .category("Computers")
                 .build();
 
         Product updatedProduct = Product.builder()
                 .id(productId)
                 .name("Updated Product")
                 .price(new BigDecimal("129.99"))
-                .category(product.getCategory())
+                .category("Computers")
                 .build();
 
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
@@ -164,6 +232,8 @@ public class ProductServiceImplTest {
         assertThat(result.get().getPrice()).isEqualTo(new BigDecimal("129.99"));
         verify(productRepository, times(1)).findById(productId);
         verify(productRepository, times(1)).save(any(Product.class));
+        // Se invalidan la categoria anterior y la nueva
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(productId, Set.of("Electronics", "Computers")));
     }
 
     @Test
@@ -184,15 +254,20 @@ public class ProductServiceImplTest {
         assertThat(result).isEmpty();
         verify(productRepository, times(1)).findById(nonExistingId);
         verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void deleteProduct_ShouldCallRepositoryDelete() {
+        // Arrange
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
         // Act
         productService.deleteProduct(productId);
 
         // Assert
         verify(productRepository, times(1)).deleteById(productId);
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(productId, Set.of("Electronics")));
     }
 }
 
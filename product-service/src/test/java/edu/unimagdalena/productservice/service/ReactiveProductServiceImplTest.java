@@ -0,0 +1,189 @@
+package edu.unimagdalena.productservice.service;
+
+import edu.unimagdalena.productservice.config.CacheConfig;
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.repository.ProductRepository;
+import edu.unimagdalena.productservice.repository.ReactiveProductRepository;
+import edu.unimagdalena.productservice.service.caching.ProductChangedEvent;
+import edu.unimagdalena.productservice.service.pagination.ProductSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveProductServiceImplTest {
+
+    @Mock
+    private ReactiveProductRepository productRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache productCache;
+
+    @InjectMocks
+    private ReactiveProductServiceImpl productService;
+
+    private Product product;
+    private String productId;
+
+    @BeforeEach
+    void setUp() {
+        productId = UUID.randomUUID().toString();
+        product = Product.builder()
+                .id(productId)
+                .name("Test Product")
+                .price(new BigDecimal("99.99"))
+                .category("Electronics")
+                .build();
+    }
+
+    @Test
+    void getAllProducts_ShouldStreamRepositoryResults() {
+        // Arrange
+        when(productRepository.findAll()).thenReturn(Flux.just(product, Product.builder().id("2").build()));
+
+        // Act & Assert
+        StepVerifier.create(productService.getAllProducts())
+                .expectNext(product)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void exportProducts_ShouldReadFromBatchedCursorWithBackpressure() {
+        // Arrange
+        when(productRepository.streamAllBy()).thenReturn(Flux.range(0, 1000)
+                .map(i -> Product.builder().id(String.valueOf(i)).build()));
+
+        // Act & Assert
+        StepVerifier.create(productService.exportProducts(), 10)
+                .expectNextCount(10)
+                .thenRequest(990)
+                .expectNextCount(990)
+                .verifyComplete();
+    }
+
+    @Test
+    void getProductsByPriceRange_ShouldStreamIndexedRangeQuery() {
+        // Arrange
+        Range<BigDecimal> range = ProductRepository.priceRange(new BigDecimal("50"), new BigDecimal("100"));
+        when(productRepository.findByPriceBetweenOrderByPriceAsc(range)).thenReturn(Flux.just(product));
+
+        // Act & Assert
+        StepVerifier.create(productService.getProductsByPriceRange(new BigDecimal("50"), new BigDecimal("100")))
+                .expectNext(product)
+                .verifyComplete();
+    }
+
+    @Test
+    void getProductsByIds_ShouldResolveAllIdsWithOneQuery() {
+        // Arrange
+        List<String> ids = List.of(productId, "missing");
+        when(cacheManager.getCache(CacheConfig.PRODUCT_CACHE)).thenReturn(productCache);
+        when(productRepository.findAllById(ids)).thenReturn(Flux.just(product));
+
+        // Act & Assert
+        StepVerifier.create(productService.getProductsByIds(ids))
+                .expectNext(product)
+                .verifyComplete();
+        verify(productRepository, times(1)).findAllById(ids);
+        verify(productCache).put(productId, product);
+    }
+
+    @Test
+    void getProductsByIds_ShouldQueryOnlyIdsMissingFromProductCache() {
+        // Arrange
+        Product other = new Product("other", "Mouse", new BigDecimal("19.99"), "Accessories");
+        when(cacheManager.getCache(CacheConfig.PRODUCT_CACHE)).thenReturn(productCache);
+        when(productCache.get(productId, Product.class)).thenReturn(product);
+        when(productRepository.findAllById(List.of("other"))).thenReturn(Flux.just(other));
+
+        // Act & Assert
+        StepVerifier.create(productService.getProductsByIds(List.of(productId, "other")))
+                .expectNext(product, other)
+                .verifyComplete();
+        verify(productRepository, times(1)).findAllById(List.of("other"));
+        verify(productCache, never()).put(eq(productId), any());
+    }
+
+    @Test
+    void getProductPage_ShouldRunKeysetQueryAndBuildCursor() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(Flux.just(
+                Product.builder().id("a").build(),
+                Product.builder().id("b").build(),
+                Product.builder().id("c").build()));
+
+        // Act & Assert
+        StepVerifier.create(productService.getProductPage(null, 2, ProductSort.ID, Set.of("id", "name")))
+                .expectNextMatches(page -> page.getItems().size() == 2 && page.getNextCursor() != null)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateProduct_WithExistingId_ShouldSaveAndPublishChange() {
+        // Arrange
+        Product changes = Product.builder().category("Computers").build();
+        when(productRepository.findById(productId)).thenReturn(Mono.just(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        StepVerifier.create(productService.updateProduct(productId, changes))
+                .expectNextMatches(updated -> updated.getCategory().equals("Computers")
+                        && updated.getName().equals("Test Product"))
+                .verifyComplete();
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(productId, Set.of("Electronics", "Computers")));
+    }
+
+    @Test
+    void updateProduct_WithNonExistingId_ShouldReturnEmpty() {
+        // Arrange
+        when(productRepository.findById(productId)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(productService.updateProduct(productId, product)).verifyComplete();
+        verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deleteProduct_ShouldDeleteAndPublishChange() {
+        // Arrange
+        when(productRepository.findById(productId)).thenReturn(Mono.just(product));
+        when(productRepository.deleteById(productId)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(productService.deleteProduct(productId)).verifyComplete();
+        verify(productRepository).deleteById(productId);
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(productId, Set.of("Electronics")));
+    }
+}
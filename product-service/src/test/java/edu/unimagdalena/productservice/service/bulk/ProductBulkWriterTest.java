@@ -0,0 +1,151 @@
+package edu.unimagdalena.productservice.service.bulk;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import edu.unimagdalena.productservice.config.CacheConfig;
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.service.caching.CacheInvalidationService;
+import edu.unimagdalena.productservice.service.search.ProductSearchIndex;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkWriterTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache productCache;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    private ProductBulkWriter bulkWriter;
+
+    @BeforeEach
+    void setUp() {
+        // Mismo setup que Spring Boot: sin las conversiones por defecto BigDecimal no se mapea a Decimal128
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(Product.class)).thenReturn("products");
+        when(mongoTemplate.getCollection("products")).thenReturn(Mono.just(collection));
+        when(cacheManager.getCache(CacheConfig.PRODUCT_CACHE)).thenReturn(productCache);
+        bulkWriter = new ProductBulkWriter(mongoTemplate, cacheInvalidationService, cacheManager, searchIndex, 2);
+    }
+
+    @Test
+    void upsert_ShouldWriteUnorderedBatchesOfConfiguredSize() {
+        // Arrange
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            List<?> models = invocation.getArgument(0);
+            return Mono.just(BulkWriteResult.acknowledged(0, models.size() - 1, 0, 0,
+                    List.of(new BulkWriteUpsert(0, new BsonString("new"))), List.of()));
+        });
+        when(cacheInvalidationService.invalidateAllProductsCache()).thenReturn(Mono.empty());
+        Flux<Product> products = Flux.just(
+                new Product(null, "Laptop", new BigDecimal("999.99"), "Electronics"),
+                new Product("p2", "Mouse", new BigDecimal("19.99"), "Accessories"),
+                new Product("p3", "Desk", new BigDecimal("150.00"), "Furniture"));
+
+        // Act & Assert
+        StepVerifier.create(bulkWriter.upsert(products))
+                .assertNext(result -> {
+                    assertThat(result.getFailures()).isEmpty();
+                    assertThat(result.getReceived()).isEqualTo(3);
+                    assertThat(result.getInserted()).isEqualTo(2);
+                    assertThat(result.getUpdated()).isEqualTo(1);
+                })
+                .verifyComplete();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WriteModel<Document>>> models = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(collection, times(2)).bulkWrite(models.capture(), options.capture());
+        assertThat(models.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(options.getValue().isOrdered()).isFalse();
+
+        Document first = ((ReplaceOneModel<Document>) models.getAllValues().get(0).get(0)).getReplacement();
+        assertThat(first.getString("_id")).isNotBlank();
+        assertThat(first.get("price")).isEqualTo(new Decimal128(new BigDecimal("999.99")));
+        verify(cacheInvalidationService).invalidateAllProductsCache();
+        verify(productCache).evict("p2");
+        verify(productCache).evict("p3");
+    }
+
+    @Test
+    void upsert_WithWriteError_ShouldReportFailedItemAndKeepTheRest() {
+        // Arrange
+        BulkWriteResult partial = BulkWriteResult.acknowledged(0, 0, 0, 0,
+                List.of(new BulkWriteUpsert(0, new BsonString("p1"))), List.of());
+        MongoBulkWriteException error = new MongoBulkWriteException(partial,
+                List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.error(error));
+        when(cacheInvalidationService.invalidateAllProductsCache()).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(bulkWriter.upsert(Flux.just(
+                        new Product("p1", "Laptop", new BigDecimal("999.99"), "Electronics"),
+                        new Product("p2", "Mouse", new BigDecimal("19.99"), "Accessories"))))
+                .assertNext(result -> {
+                    assertThat(result.getInserted()).isEqualTo(1);
+                    assertThat(result.getFailures()).hasSize(1);
+                    assertThat(result.getFailures().get(0).getIndex()).isEqualTo(1);
+                    assertThat(result.getFailures().get(0).getId()).isEqualTo("p2");
+                })
+                .verifyComplete();
+        verify(searchIndex).indexAll(argThat(products -> products.size() == 1
+                && products.iterator().next().getId().equals("p1")));
+    }
+}
@@ -0,0 +1,95 @@
+package edu.unimagdalena.productservice.service.caching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.ReactiveSetOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationServiceTest {
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveSetOperations<String, String> setOperations;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    private CacheInvalidationService cacheInvalidationService;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidationService = new CacheInvalidationService(redisTemplate);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment("products:cache-generation")).thenReturn(Mono.just(1L));
+    }
+
+    @Test
+    void invalidateAllProductsCache_ShouldDeleteTaggedKeysInBatches() {
+        // Arrange
+        Flux<String> taggedKeys = Flux.fromStream(IntStream.range(0, 1200).mapToObj(i -> "products:cache:_api_products_q_page_" + i));
+        when(redisTemplate.rename(eq("products:cache-tags:all"), startsWith("products:cache-tags:all:draining:"))).thenReturn(Mono.just(true));
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.scan(startsWith("products:cache-tags:all:draining:"), any(ScanOptions.class))).thenReturn(taggedKeys);
+        when(redisTemplate.delete(any(String[].class))).thenAnswer(invocation -> Mono.just((long) invocation.getArguments().length));
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+
+        // Act & Assert
+        StepVerifier.create(cacheInvalidationService.invalidateAllProductsCache()).verifyComplete();
+
+        // 3 lotes (500 + 500 + 200) mas el borrado del set renombrado
+        verify(redisTemplate, times(4)).delete(any(String[].class));
+        verify(redisTemplate, times(3)).convertAndSend(eq("products:cache:invalidations"), anyString());
+        verify(redisTemplate, never()).keys(anyString());
+        verify(valueOperations).increment("products:cache-generation");
+    }
+
+    @Test
+    void invalidateProductCache_WhenTagDoesNotExist_ShouldDoNothing() {
+        // Arrange
+        when(redisTemplate.rename(eq("products:cache-tags:product:42"), anyString()))
+                .thenReturn(Mono.error(new RedisSystemException("ERR no such key", null)));
+
+        // Act & Assert
+        StepVerifier.create(cacheInvalidationService.invalidateProductCache("42")).verifyComplete();
+
+        verify(redisTemplate, never()).opsForSet();
+        verify(redisTemplate, never()).delete(any(String[].class));
+    }
+
+    @Test
+    void onProductChanged_ShouldInvalidateProductCategoriesAndListings() {
+        // Arrange
+        when(redisTemplate.rename(anyString(), anyString()))
+                .thenReturn(Mono.error(new RedisSystemException("ERR no such key", null)));
+
+        // Act
+        cacheInvalidationService.onProductChanged(new ProductChangedEvent("42", Set.of("Books")));
+
+        // Assert
+        verify(redisTemplate).rename(eq("products:cache-tags:product:42"), anyString());
+        verify(redisTemplate).rename(eq("products:cache-tags:category:Books"), anyString());
+        verify(redisTemplate).rename(eq("products:cache-tags:list"), anyString());
+        verify(redisTemplate, never()).rename(eq("products:cache-tags:all"), anyString());
+    }
+}
@@ -0,0 +1,103 @@
+package edu.unimagdalena.productservice.service.pagination;
+
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.model.ProductPage;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductKeysetQueryTest {
+
+    @Test
+    void toPage_WithExtraRow_ShouldReturnCursorThatContinuesAfterLastItem() {
+        // Arrange
+        List<Product> rows = List.of(
+                Product.builder().id("a").category("Books").price(new BigDecimal("10.00")).build(),
+                Product.builder().id("b").category("Books").price(new BigDecimal("12.50")).build(),
+                Product.builder().id("c").category("Games").price(new BigDecimal("5.00")).build());
+
+        // Act
+        ProductPage page = ProductKeysetQuery.toPage(rows, 2, ProductSort.CATEGORY_PRICE, Set.of("id", "name"));
+        Query next = ProductKeysetQuery.build(page.getNextCursor(), 2, ProductSort.CATEGORY_PRICE, Set.of("id", "name"));
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getItems().get(1).getCategory());
+        assertNull(page.getItems().get(1).getPrice());
+        assertEquals(3, next.getLimit());
+        assertTrue(next.getQueryObject().toJson().contains("\"Books\""));
+        assertTrue(next.getQueryObject().toJson().contains("12.50"));
+        Document projection = next.getFieldsObject();
+        assertEquals(Set.of("id", "name", "category", "price"), projection.keySet());
+    }
+
+    @Test
+    void toPage_WithoutExtraRow_ShouldReturnNullCursor() {
+        // Arrange
+        List<Product> rows = List.of(Product.builder().id("a").build());
+
+        // Act
+        ProductPage page = ProductKeysetQuery.toPage(rows, 2, ProductSort.ID, null);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void build_WithInvalidCursor_ShouldThrowIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductKeysetQuery.build("not base64!", 20, ProductSort.ID, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductKeysetQuery.build("YQ", 20, ProductSort.CATEGORY_PRICE, null));
+    }
+
+    @Test
+    void toPage_WithNullCategoryAndPriceAtPageBoundary_ShouldSeekPastNulls() {
+        // Arrange: Mongo ordena null antes que cualquier valor, asi que estas filas van al principio
+        List<Product> rows = List.of(
+                Product.builder().id("a").build(),
+                Product.builder().id("b").category("Books").build(),
+                Product.builder().id("c").category("Books").price(new BigDecimal("5.00")).build());
+
+        // Act
+        ProductPage first = ProductKeysetQuery.toPage(rows.subList(0, 2), 1, ProductSort.CATEGORY_PRICE, null);
+        Query afterNullCategory = ProductKeysetQuery.build(first.getNextCursor(), 1, ProductSort.CATEGORY_PRICE, null);
+        ProductPage second = ProductKeysetQuery.toPage(rows.subList(1, 3), 1, ProductSort.CATEGORY_PRICE, null);
+        Query afterNullPrice = ProductKeysetQuery.build(second.getNextCursor(), 1, ProductSort.CATEGORY_PRICE, null);
+
+        // Assert
+        assertEquals(new Document("$or", List.of(
+                new Document("category", new Document("$ne", null)),
+                new Document("category", null).append("price", new Document("$ne", null)),
+                new Document("category", null).append("price", null).append("_id", new Document("$gt", "a")))),
+                afterNullCategory.getQueryObject());
+        assertEquals(new Document("$or", List.of(
+                new Document("category", new Document("$gt", "Books")),
+                new Document("category", "Books").append("price", new Document("$ne", null)),
+                new Document("category", "Books").append("price", null).append("_id", new Document("$gt", "b")))),
+                afterNullPrice.getQueryObject());
+    }
+
+    @Test
+    void build_WithNullLiteralCategory_ShouldNotConfuseItWithMissingCategory() {
+        // Arrange
+        List<Product> rows = List.of(
+                Product.builder().id("a").category("null").price(new BigDecimal("1.00")).build(),
+                Product.builder().id("b").category("null").price(new BigDecimal("2.00")).build());
+
+        // Act
+        ProductPage page = ProductKeysetQuery.toPage(rows, 1, ProductSort.CATEGORY_PRICE, null);
+        Query next = ProductKeysetQuery.build(page.getNextCursor(), 1, ProductSort.CATEGORY_PRICE, null);
+
+        // Assert
+        assertTrue(next.getQueryObject().toJson().contains("{\"category\": {\"$gt\": \"null\"}}"));
+    }
+}
@@ -0,0 +1,105 @@
+package edu.unimagdalena.productservice.service.search;
+
+import edu.unimagdalena.productservice.model.Product;
+import edu.unimagdalena.productservice.repository.ReactiveProductRepository;
+import edu.unimagdalena.productservice.service.caching.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ReactiveProductRepository productRepository;
+
+    private ProductSearchIndex searchIndex;
+
+    private final Product laptop = new Product("1", "Gaming Laptop", new BigDecimal("999.99"), "Electronics");
+    private final Product headphones = new Product("2", "Wireless Headphones", new BigDecimal("49.99"), "Accessories");
+    private final Product lamp = new Product("3", "Lámpara de escritorio", new BigDecimal("25.00"), "Hogar");
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ProductSearchIndex(productRepository);
+    }
+
+    @Test
+    void rebuild_ShouldIndexCatalogFromCursor() {
+        // Arrange
+        when(productRepository.streamAllBy()).thenReturn(Flux.just(laptop, headphones, lamp));
+
+        // Act
+        searchIndex.rebuild();
+
+        // Assert
+        assertThat(searchIndex.search("la", 10)).containsExactly(laptop, lamp);
+    }
+
+    @Test
+    void search_WithSeveralTokens_ShouldRequireAllAndTreatLastAsPrefix() {
+        // Arrange
+        searchIndex.indexAll(List.of(laptop, headphones, lamp));
+
+        // Act & Assert
+        assertThat(searchIndex.search("gaming lap", 10)).containsExactly(laptop);
+        assertThat(searchIndex.search("wireless lap", 10)).isEmpty();
+        assertThat(searchIndex.search("access", 10)).containsExactly(headphones);
+        assertThat(searchIndex.search("LAMPARA", 10)).containsExactly(lamp);
+        assertThat(searchIndex.search("e", 1)).hasSize(1);
+    }
+
+    @Test
+    void search_WithLimit_ShouldKeepFirstProductsByName() {
+        // Arrange: el token "lampara" va antes que "laptop", pero "Gaming Laptop" va antes por nombre
+        searchIndex.indexAll(List.of(lamp, laptop, headphones));
+
+        // Act
+        List<Product> results = searchIndex.search("la", 1);
+
+        // Assert
+        assertThat(results).containsExactly(laptop);
+    }
+
+    @Test
+    void search_WithMoreMatchesThanLimit_ShouldReturnFirstNamesInOrder() {
+        // Arrange
+        Product lantern = new Product("4", "Camping Lantern", new BigDecimal("15.00"), "Outdoor");
+        Product label = new Product("5", "Label Maker", new BigDecimal("35.00"), "Office");
+        searchIndex.indexAll(List.of(lamp, label, laptop, lantern));
+
+        // Act
+        List<Product> results = searchIndex.search("la", 2);
+
+        // Assert
+        assertThat(results).containsExactly(lantern, laptop);
+    }
+
+    @Test
+    void onProductChanged_ShouldReindexUpdatedProductAndDropRemovedOne() {
+        // Arrange
+        searchIndex.indexAll(List.of(laptop, headphones));
+        Product renamed = new Product("1", "Ultrabook", new BigDecimal("999.99"), "Electronics");
+        when(productRepository.findById("1")).thenReturn(Mono.just(renamed));
+        when(productRepository.findById("2")).thenReturn(Mono.empty());
+
+        // Act
+        searchIndex.onProductChanged(ProductChangedEvent.of("1", "Electronics"));
+        searchIndex.onProductChanged(ProductChangedEvent.of("2", "Accessories"));
+
+        // Assert
+        assertThat(searchIndex.search("gaming", 10)).isEmpty();
+        assertThat(searchIndex.search("ultra", 10)).containsExactly(renamed);
+        assertThat(searchIndex.search("wireless", 10)).isEmpty();
+    }
+}